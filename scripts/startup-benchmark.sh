@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Compara el tiempo hasta la primera solicitud correcta (GET /actuator/info con 200) entre:
+#   plain     java -jar, perfil por defecto (con springdoc)
+#   prod      java -jar, perfil prod (sin springdoc)
+#   aot-cds   jar extraído, perfil prod, -Dspring.aot.enabled=true y archivo AppCDS
+# El tiempo incluye el arranque de la JVM. MongoDB no es necesario: el cliente conecta en segundo plano.
+#
+# Uso (desde la raíz del proyecto):
+#   ./mvnw -Pstartup -DskipTests package
+#   ./scripts/startup-benchmark.sh [repeticiones]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18083}
+WORK=target/startup-benchmark
+JAR=$(ls target/microserviceCredit-*.jar | grep -v '\.original$' | head -1)
+
+rm -rf "$WORK"
+mkdir -p "$WORK"
+
+# Capas en jars sueltos: AppCDS no admite clases cargadas desde jars anidados
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP_JAR="$WORK/app/$(basename "$JAR")"
+
+# Ejecución de entrenamiento: se detiene al terminar el refresh del contexto y vuelca las clases cargadas
+echo "Generando el archivo AppCDS..."
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -Dspring.profiles.active=prod -jar "$APP_JAR" > "$WORK/training.log" 2>&1
+
+# Milisegundos desde el lanzamiento de la JVM hasta la primera respuesta 200
+measure() {
+    local start end pid
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$WORK/run.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/actuator/info"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "La aplicación terminó sin responder; ver $WORK/run.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+report() {
+    local mode=$1
+    shift
+    local times=()
+    for _ in $(seq "$RUNS"); do
+        times+=("$(measure "$@")")
+    done
+    local sorted
+    sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+    printf '%-8s mediana %5s ms   mín %5s ms   máx %5s ms   (%s)\n' "$mode" \
+        "$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")" \
+        "$(echo "$sorted" | head -1)" "$(echo "$sorted" | tail -1)" "${times[*]}"
+}
+
+echo "Tiempo hasta la primera solicitud correcta, $RUNS ejecuciones por modo:"
+report plain java -jar "$JAR"
+report prod java -Dspring.profiles.active=prod -jar "$JAR"
+report aot-cds java -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar "$APP_JAR"
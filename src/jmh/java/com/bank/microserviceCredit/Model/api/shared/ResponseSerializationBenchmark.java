@@ -0,0 +1,77 @@
+package com.bank.microserviceCredit.Model.api.shared;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialización con Jackson de las respuestas del controlador, con la misma configuración de fechas que Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "500"})
+    public int listSize;
+
+    private ObjectWriter writer;
+    private ResponseDto<CreditDto> single;
+    private ResponseDto<List<CreditDto>> list;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        single = ResponseDtoBuilder.success(credit(0), "Crédito encontrado");
+        list = ResponseDtoBuilder.success(IntStream.range(0, listSize).mapToObj(ResponseSerializationBenchmark::credit).toList(),
+                "Créditos encontrados");
+    }
+
+    @Benchmark
+    public byte[] serializeSingleCredit() throws JsonProcessingException {
+        return writer.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] serializeCreditList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(list);
+    }
+
+    private static CreditDto credit(int index) {
+        return CreditDto.builder()
+                .id("credit-" + index)
+                .customerId("customer-" + index)
+                .type("BUSINESS")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.0))
+                .active(true)
+                .dueDate(LocalDateTime.of(2024, 6, 1, 0, 0))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+}
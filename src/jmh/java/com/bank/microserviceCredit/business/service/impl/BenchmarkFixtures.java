@@ -0,0 +1,167 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.business.cache.CreditCache;
+import com.bank.microserviceCredit.business.cache.CustomerVerificationCache;
+import com.bank.microserviceCredit.business.cache.InMemoryCreditInvalidationBus;
+import com.bank.microserviceCredit.business.overdue.OverdueDebtSweeper;
+import com.bank.microserviceCredit.business.portfolio.CustomerPortfolioReadModel;
+import com.bank.microserviceCredit.business.repository.ICreditPostingRepository;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.repository.ISweepCheckpointRepository;
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
+import com.bank.microserviceCredit.configuration.BulkProperties;
+import com.bank.microserviceCredit.configuration.CreditCacheProperties;
+import com.bank.microserviceCredit.configuration.CreditUpdateProperties;
+import com.bank.microserviceCredit.configuration.CustomerCacheProperties;
+import com.bank.microserviceCredit.configuration.EligibilityProperties;
+import com.bank.microserviceCredit.configuration.OverdueSweepProperties;
+import com.bank.microserviceCredit.configuration.PaginationProperties;
+import com.bank.microserviceCredit.configuration.PortfolioProperties;
+import com.bank.microserviceCredit.configuration.PostingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Dobles en memoria para medir los pipelines del servicio sin MongoDB ni servicios remotos:
+ * repositorio de créditos en mapas, repositorios auxiliares sin efecto y WebClient con respuesta fija.
+ */
+final class BenchmarkFixtures {
+
+    static final String CUSTOMER_ID = "customer-1";
+    private static final Queue<CreditEntity> EMPTY = new ConcurrentLinkedQueue<>();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Crea el servicio real con dependencias en memoria.
+     *
+     * @param repository       Repositorio de créditos en memoria.
+     * @param customerCacheTtl Vigencia de la caché de clientes; cero obliga a llamar al WebClient en cada solicitud.
+     */
+    static CreditServiceImpl creditService(ICreditRepository repository, Duration customerCacheTtl) {
+        CustomerCacheProperties cacheProperties = new CustomerCacheProperties();
+        cacheProperties.setTtl(customerCacheTtl);
+        // La caché de créditos se desactiva: los pipelines medidos deben llegar siempre al repositorio
+        CreditCacheProperties creditCacheProperties = new CreditCacheProperties();
+        creditCacheProperties.setEnabled(false);
+        return new CreditServiceImpl(repository, customerWebClient(), new PaginationProperties(),
+                new CustomerVerificationCache(cacheProperties), new BulkProperties(), new EligibilityProperties(),
+                noop(ICreditRollupService.class), new CreditUpdateProperties(),
+                new CreditCache(creditCacheProperties, new InMemoryCreditInvalidationBus()), noop(ICreditPostingRepository.class), new PostingProperties(),
+                new OverdueDebtSweeper(repository, noop(ISweepCheckpointRepository.class), new OverdueSweepProperties(), new SimpleMeterRegistry()),
+                new CustomerPortfolioReadModel(null, new PortfolioProperties(), new SimpleMeterRegistry()));
+    }
+
+    static CreditRequest request(String type, double balance) {
+        CreditRequest request = new CreditRequest();
+        request.setCustomerId(CUSTOMER_ID);
+        request.setType(type);
+        request.setCreditLimit(Money.of(10_000.0));
+        request.setBalance(Money.of(balance));
+        request.setActive(true);
+        return request;
+    }
+
+    static CreditEntity entity(String id, String customerId, String type, LocalDateTime dueDate) {
+        return CreditEntity.builder()
+                .id(id)
+                .customerId(customerId)
+                .type(type)
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.0))
+                .active(true)
+                .dueDate(dueDate)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+
+    // Responde 200 con un cliente mínimo sin abrir conexiones
+    static WebClient customerWebClient() {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"id\":\"" + CUSTOMER_ID + "\"}")
+                        .build()))
+                .build();
+    }
+
+    /**
+     * Repositorio de créditos en memoria que implementa solo las operaciones de los pipelines medidos.
+     */
+    static ICreditRepository inMemoryCreditRepository() {
+        Map<String, CreditEntity> byId = new ConcurrentHashMap<>();
+        Map<String, Queue<CreditEntity>> byCustomer = new ConcurrentHashMap<>();
+        return (ICreditRepository) Proxy.newProxyInstance(ICreditRepository.class.getClassLoader(),
+                new Class<?>[]{ICreditRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        CreditEntity credit = (CreditEntity) args[0];
+                        if (credit.getId() == null) {
+                            credit.setId(ObjectId.get().toHexString());
+                            byCustomer.computeIfAbsent(credit.getCustomerId(), key -> new ConcurrentLinkedQueue<>()).add(credit);
+                        }
+                        byId.put(credit.getId(), credit);
+                        yield Mono.just(credit);
+                    }
+                    case "findById" -> Mono.justOrEmpty(byId.get((String) args[0]));
+                    case "findAndUpdateAmounts" -> {
+                        // Como findAndModify con returnNew(false): devuelve el documento anterior
+                        CreditEntity previous = byId.get((String) args[0]);
+                        if (previous != null) {
+                            byId.put(previous.getId(), previous.toBuilder()
+                                    .creditLimit((Money) args[1])
+                                    .balance((Money) args[2])
+                                    .updatedAt((LocalDateTime) args[4])
+                                    .build());
+                        }
+                        yield Mono.justOrEmpty(previous);
+                    }
+                    case "refreshOverdue" -> Mono.empty();
+                    case "existsOverdueDebt" -> Mono.just(byCustomer.getOrDefault((String) args[0], EMPTY).stream()
+                            .anyMatch(credit -> credit.getDueDate() != null && credit.getDueDate().isBefore((LocalDateTime) args[2])
+                                    && credit.getBalance() != null && credit.getBalance().signum() > 0));
+                    case "toString" -> "InMemoryCreditRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Cualquier operación reactiva termina vacía: aísla el coste del pipeline de créditos
+    @SuppressWarnings("unchecked")
+    static <T> T noop(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (Flux.class.isAssignableFrom(method.getReturnType())) {
+                return Flux.empty();
+            }
+            if (Mono.class.isAssignableFrom(method.getReturnType())) {
+                return Mono.empty();
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "Noop";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+    }
+}
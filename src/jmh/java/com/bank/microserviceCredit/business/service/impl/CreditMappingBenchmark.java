@@ -0,0 +1,52 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste y asignación del mapeo entre CreditRequest, CreditEntity y CreditDto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditMappingBenchmark {
+
+    private CreditServiceImpl service;
+    private CreditRequest request;
+    private CreditEntity entity;
+
+    @Setup
+    public void setUp() {
+        service = BenchmarkFixtures.creditService(BenchmarkFixtures.inMemoryCreditRepository(), Duration.ofMinutes(5));
+        request = BenchmarkFixtures.request("PERSONAL", 2_500.0);
+        entity = BenchmarkFixtures.entity("credit-1", BenchmarkFixtures.CUSTOMER_ID, "PERSONAL", LocalDateTime.of(2024, 6, 1, 0, 0));
+    }
+
+    @Benchmark
+    public CreditDto convertToDto() {
+        return service.convertToDto(entity);
+    }
+
+    @Benchmark
+    public CreditEntity convertToEntity() {
+        return service.convertToEntity(request);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelines reactivos completos de createCredit, updateCredit y hasOverdueDebts sobre un repositorio en
+ * memoria y un WebClient con respuesta fija: mide el coste propio de Reactor, el mapeo y la caché de clientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditServicePipelineBenchmark {
+
+    private static final int CUSTOMER_CREDITS = 10;
+
+    // "warm": el cliente verificado se sirve desde la caché; "cold": cada solicitud pasa por el WebClient
+    @Param({"warm", "cold"})
+    public String customerCache;
+
+    private ICreditRepository repository;
+    private CreditServiceImpl service;
+    private CreditRequest createRequest;
+    private CreditRequest updateRequest;
+    private String creditCardId;
+
+    // Cada iteración parte de un repositorio del mismo tamaño para que createCredit no lo haga crecer sin límite
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = BenchmarkFixtures.inMemoryCreditRepository();
+        service = BenchmarkFixtures.creditService(repository, "warm".equals(customerCache) ? Duration.ofMinutes(5) : Duration.ZERO);
+        createRequest = BenchmarkFixtures.request("BUSINESS", 2_500.0);
+        updateRequest = BenchmarkFixtures.request("CREDIT_CARD", 3_000.0);
+        LocalDateTime future = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < CUSTOMER_CREDITS; i++) {
+            repository.save(BenchmarkFixtures.entity(null, BenchmarkFixtures.CUSTOMER_ID, "BUSINESS", future)).block();
+        }
+        creditCardId = repository.save(BenchmarkFixtures.entity(null, BenchmarkFixtures.CUSTOMER_ID, "CREDIT_CARD", future))
+                .block()
+                .getId();
+    }
+
+    @Benchmark
+    public CreditDto createCredit() {
+        return service.createCredit(createRequest).block();
+    }
+
+    @Benchmark
+    public CreditDto updateCredit() {
+        return service.updateCredit(creditCardId, updateRequest).block();
+    }
+
+    @Benchmark
+    public Boolean hasOverdueDebts() {
+        return service.hasOverdueDebts(BenchmarkFixtures.CUSTOMER_ID).block();
+    }
+}
@@ -0,0 +1,113 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.configuration.MongoConversionsConfig;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Coste en el cliente de las comprobaciones de elegibilidad para un cliente con N créditos: la ruta anterior traía
+ * todos los créditos (findByCustomerId), los hidrataba en CreditEntity y filtraba en memoria; la actual
+ * (existsCovered) recibe como mucho un documento proyectado a customerId.
+ * <p>
+ * Parte de los bytes BSON tal como llegan del driver, así que mide decodificación, mapeo y filtro, no el trabajo del
+ * servidor ni la red; para eso está EligibilityHarness del perfil load-test. Ningún crédito cumple la condición, que
+ * es el caso habitual (la mayoría de clientes no tiene deuda vencida) y el peor para la ruta anterior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EligibilityQueryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int creditsPerCustomer;
+
+    private final DocumentCodec codec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private List<RawBsonDocument> credits;
+    private RawBsonDocument projected;
+
+    @Setup
+    public void setUp() {
+        converter = converter();
+        // Créditos personales al corriente: ni tarjeta activa ni deuda vencida
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(30);
+        credits = IntStream.range(0, creditsPerCustomer)
+                .mapToObj(i -> encode(BenchmarkFixtures.entity("credit-" + i, BenchmarkFixtures.CUSTOMER_ID, "PERSONAL", dueDate)))
+                .toList();
+        projected = new RawBsonDocument(new Document("customerId", BenchmarkFixtures.CUSTOMER_ID), codec);
+    }
+
+    @Benchmark
+    public Boolean fetchAllActiveCreditCard() {
+        return fetchAll().any(credit -> "CREDIT_CARD".equalsIgnoreCase(credit.getType()) && Boolean.TRUE.equals(credit.getActive()))
+                .block();
+    }
+
+    @Benchmark
+    public Boolean fetchAllOverdueDebt() {
+        LocalDateTime now = LocalDateTime.now();
+        return fetchAll().any(credit -> credit.getDueDate().isBefore(now) && credit.getBalance().signum() > 0)
+                .block();
+    }
+
+    // Sin coincidencias el servidor devuelve un lote vacío y no hay nada que decodificar
+    @Benchmark
+    public Boolean existsNoMatch() {
+        return Mono.<Document>empty().hasElement().block();
+    }
+
+    // Cota superior de la ruta actual: un único documento proyectado
+    @Benchmark
+    public Boolean existsMatch() {
+        return Mono.fromSupplier(() -> projected.decode(codec)).hasElement().block();
+    }
+
+    private Flux<CreditEntity> fetchAll() {
+        return Flux.fromIterable(credits).map(raw -> converter.read(CreditEntity.class, raw.decode(codec)));
+    }
+
+    private RawBsonDocument encode(CreditEntity entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return new RawBsonDocument(document, codec);
+    }
+
+    // Mismas conversiones que la aplicación (Money en Decimal128, fechas, etc.)
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoConversionsConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
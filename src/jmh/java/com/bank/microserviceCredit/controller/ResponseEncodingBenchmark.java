@@ -0,0 +1,104 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDto;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDtoBuilder;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Codificación a DataBuffer de las respuestas de lectura tal como lo hace WebFlux, con Jackson y con el codificador
+ * escrito a mano (CreditJsonEncoder); con -prof gc muestra los bytes asignados por respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final ResolvableType SINGLE_TYPE = ResolvableType.forClassWithGenerics(ResponseDto.class, CreditDto.class);
+    private static final ResolvableType LIST_TYPE = ResolvableType.forClassWithGenerics(ResponseDto.class,
+            ResolvableType.forClassWithGenerics(List.class, CreditDto.class));
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private Jackson2JsonEncoder jackson;
+    private final CreditJsonEncoder handWritten = new CreditJsonEncoder();
+    private ResponseDto<CreditDto> single;
+    private ResponseDto<List<CreditDto>> list;
+
+    @Setup
+    public void setUp() {
+        jackson = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        single = ResponseDtoBuilder.success(credit(0), "Crédito encontrado");
+        list = ResponseDtoBuilder.success(IntStream.range(0, 10).mapToObj(ResponseEncodingBenchmark::credit).toList(),
+                "Créditos encontrados");
+    }
+
+    @Benchmark
+    public int jacksonSingleCredit() {
+        return release(jackson.encodeValue(single, bufferFactory, SINGLE_TYPE, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    @Benchmark
+    public int jacksonCreditList() {
+        return release(jackson.encodeValue(list, bufferFactory, LIST_TYPE, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    @Benchmark
+    public int handWrittenSingleCredit() {
+        return release(handWritten.encodeValue(single, bufferFactory, SINGLE_TYPE, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    @Benchmark
+    public int handWrittenCreditList() {
+        return release(handWritten.encodeValue(list, bufferFactory, LIST_TYPE, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    private static int release(DataBuffer buffer) {
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    private static CreditDto credit(int index) {
+        return CreditDto.builder()
+                .id("6650f1c2a4b3e21d9c0a" + String.format("%04d", index))
+                .customerId("customer-" + index)
+                .type("CREDIT_CARD")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.75))
+                .active(true)
+                .dueDate(LocalDateTime.of(2024, 6, 1, 0, 0))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 30, 15))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .version(3L)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.bank.microserviceCredit.loadtest;
+
+import com.bank.microserviceCredit.MicroserviceCreditApplication;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Compara, contra un Mongo real, las comprobaciones de elegibilidad anteriores (findByCustomerId y filtro en memoria)
+ * con las actuales (existsActiveCreditCard / existsOverdueDebt: limit 1 y proyección cubierta por índice) para
+ * clientes con muchos créditos. Ningún crédito sembrado cumple la condición, así que la ruta anterior recorre todos.
+ * <p>
+ * Parámetros (-D): eligibility.customers, eligibility.credits-per-customer, eligibility.lookups y load.mongo-uri
+ * (vacío = Mongo embebido; si se indica uno externo debe ser una base vacía).
+ */
+public final class EligibilityHarness {
+
+    private static final int INSERT_BATCH = 5_000;
+
+    private EligibilityHarness() {
+    }
+
+    public static void main(String[] args) {
+        int customers = Integer.getInteger("eligibility.customers", 200);
+        int creditsPerCustomer = Integer.getInteger("eligibility.credits-per-customer", 1_000);
+        int lookups = Integer.getInteger("eligibility.lookups", 2_000);
+        String externalUri = System.getProperty("load.mongo-uri", "");
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongo = externalUri.isBlank() ? LoadHarness.startMongo() : null;
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(MicroserviceCreditApplication.class)
+                     .properties(Map.of(
+                             "server.port", "0",
+                             "spring.data.mongodb.uri", LoadHarness.mongoUri(externalUri, mongo),
+                             "credit.overdue-sweep.enabled", "false",
+                             "credit.outbox.enabled", "false",
+                             "logging.level.root", "WARN"))
+                     .run()) {
+
+            ReactiveMongoTemplate mongoTemplate = application.getBean(ReactiveMongoTemplate.class);
+            ICreditRepository creditRepository = application.getBean(ICreditRepository.class);
+
+            System.out.printf("Sembrando %d clientes con %d créditos cada uno...%n", customers, creditsPerCustomer);
+            seed(mongoTemplate, customers, creditsPerCustomer);
+
+            // Una primera pasada sin medir calienta la JVM, el pool de conexiones y la caché de Mongo
+            for (boolean measured : new boolean[]{false, true}) {
+                double fetchAllCard = lookupMicros(customers, lookups, customerId -> creditRepository.findByCustomerId(customerId)
+                        .any(credit -> "CREDIT_CARD".equalsIgnoreCase(credit.getType()) && Boolean.TRUE.equals(credit.getActive())));
+                double existsCard = lookupMicros(customers, lookups, creditRepository::existsActiveCreditCard);
+                double fetchAllOverdue = lookupMicros(customers, lookups, customerId -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    return creditRepository.findByCustomerId(customerId)
+                            .any(credit -> credit.getDueDate().isBefore(now) && credit.getBalance().signum() > 0);
+                });
+                double existsOverdue = lookupMicros(customers, lookups,
+                        customerId -> creditRepository.existsOverdueDebt(customerId, null, LocalDateTime.now()));
+                if (measured) {
+                    System.out.printf("Tarjeta activa:  findByCustomerId + filtro %.1f µs, exists %.1f µs por cliente%n", fetchAllCard, existsCard);
+                    System.out.printf("Deuda vencida:   findByCustomerId + filtro %.1f µs, exists %.1f µs por cliente%n", fetchAllOverdue, existsOverdue);
+                }
+            }
+        }
+    }
+
+    private static void seed(ReactiveMongoTemplate mongoTemplate, int customers, int creditsPerCustomer) {
+        int credits = customers * creditsPerCustomer;
+        LocalDateTime now = LocalDateTime.now();
+        Flux.range(0, (credits + INSERT_BATCH - 1) / INSERT_BATCH)
+                .concatMap(batch -> mongoTemplate.insert(IntStream.range(batch * INSERT_BATCH, Math.min(credits, (batch + 1) * INSERT_BATCH))
+                        .mapToObj(i -> credit(i, now, customers))
+                        .toList(), CreditEntity.class).then())
+                .blockLast();
+    }
+
+    // Créditos personales al corriente: ni tarjeta activa ni deuda vencida
+    private static CreditEntity credit(int index, LocalDateTime now, int customers) {
+        return CreditEntity.builder()
+                .customerId("customer-" + index % customers)
+                .type("PERSONAL")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(ThreadLocalRandom.current().nextDouble(1, 10_000)))
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .dueDate(now.plusDays(1 + index % 30))
+                .build();
+    }
+
+    private static double lookupMicros(int customers, int lookups, Function<String, Mono<Boolean>> check) {
+        long start = System.nanoTime();
+        Flux.range(0, lookups)
+                .concatMap(i -> check.apply("customer-" + ThreadLocalRandom.current().nextInt(customers)))
+                .blockLast();
+        return (System.nanoTime() - start) / 1_000.0 / lookups;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bank.microserviceCredit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramas de latencia (HdrHistogram, en microsegundos) y contadores de errores por operación.
+ */
+final class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(String operation, long latencyNanos, boolean success) {
+        long micros = Math.min(MAX_LATENCY_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        histograms.computeIfAbsent(operation, key -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3)).recordValue(micros);
+        if (!success) {
+            errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        }
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void print(PrintStream out, Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        out.printf("%n%-12s %9s %8s %9s %10s %10s %10s %10s%n", "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    total.add(entry.getValue());
+                    printRow(out, entry.getKey(), entry.getValue(), errorCount(entry.getKey()), seconds);
+                });
+        printRow(out, "TOTAL", total, errors.values().stream().mapToLong(LongAdder::sum).sum(), seconds);
+        out.printf("Solicitudes descartadas por superar el máximo en curso: %d%n", dropped.sum());
+    }
+
+    private long errorCount(String operation) {
+        LongAdder counter = errors.get(operation);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    private static void printRow(PrintStream out, String operation, Histogram histogram, long errorCount, double seconds) {
+        out.printf("%-12s %9d %8d %9.1f %10.2f %10.2f %10.2f %10.2f%n",
+                operation,
+                histogram.getTotalCount(),
+                errorCount,
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
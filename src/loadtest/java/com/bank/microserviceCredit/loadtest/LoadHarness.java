@@ -0,0 +1,121 @@
+package com.bank.microserviceCredit.loadtest;
+
+import com.bank.microserviceCredit.MicroserviceCreditApplication;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Arranca el microservicio contra un MongoDB embebido y servicios de clientes y cuentas simulados, lanza una
+ * carga mixta a ritmo constante y muestra p50/p99/p99.9 y rendimiento por operación.
+ * <p>
+ * El ritmo es de modelo abierto: cada solicitud tiene una hora de inicio prevista y la latencia se mide desde
+ * ella, de modo que las esperas por saturación del servicio aparecen en los percentiles (sin omisión coordinada).
+ */
+public final class LoadHarness {
+
+    private static final int SEED_CONCURRENCY = 32;
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongo = settings.mongoUri().isBlank() ? startMongo() : null;
+             StubDownstream customerService = StubDownstream.customerService(settings.customerLatency());
+             StubDownstream accountService = StubDownstream.accountService(settings.accountLatency());
+             ConfigurableApplicationContext application = startApplication(settings, mongoUri(settings, mongo), customerService, accountService)) {
+
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            Workload workload = new Workload(loadClient(port, settings.maxInFlight()), settings.customers(), settings.mix());
+            System.out.printf("Creando %d créditos iniciales...%n", settings.seedCredits());
+            workload.seed(settings.seedCredits(), SEED_CONCURRENCY).block();
+
+            System.out.printf("Carga de %d sol/s: %s de calentamiento y %s de medición, mezcla %s%n",
+                    settings.rate(), settings.warmup(), settings.duration(), settings.mix());
+            LatencyReport report = run(workload, settings);
+            report.print(System.out, settings.duration());
+        }
+    }
+
+    private static LatencyReport run(Workload workload, LoadSettings settings) {
+        long periodNanos = Math.max(1, 1_000_000_000L / settings.rate());
+        long warmupTicks = settings.warmup().toNanos() / periodNanos;
+        long totalTicks = warmupTicks + settings.duration().toNanos() / periodNanos;
+        LatencyReport report = new LatencyReport();
+        long start = System.nanoTime();
+
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(totalTicks)
+                .onBackpressureDrop(tick -> report.recordDropped())
+                .flatMap(tick -> {
+                    long intendedStart = start + (tick + 1) * periodNanos;
+                    String operation = workload.nextOperation();
+                    boolean measured = tick >= warmupTicks;
+                    return workload.execute(operation)
+                            .map(status -> status < 400)
+                            .onErrorReturn(false)
+                            .doOnNext(success -> {
+                                if (measured) {
+                                    report.record(operation, System.nanoTime() - intendedStart, success);
+                                }
+                            });
+                }, settings.maxInFlight())
+                .blockLast();
+        return report;
+    }
+
+    static TransitionWalker.ReachedState<RunningMongodProcess> startMongo() {
+        // 7.0: los informes usan $dateTrunc y $merge
+        return Mongod.instance().start(Version.Main.V7_0);
+    }
+
+    private static String mongoUri(LoadSettings settings, TransitionWalker.ReachedState<RunningMongodProcess> mongo) {
+        return mongoUri(settings.mongoUri(), mongo);
+    }
+
+    static String mongoUri(String externalUri, TransitionWalker.ReachedState<RunningMongodProcess> mongo) {
+        if (mongo == null) {
+            return externalUri;
+        }
+        ServerAddress address = mongo.current().getServerAddress();
+        return "mongodb://" + address.getHost() + ":" + address.getPort() + "/creditdb";
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadSettings settings, String mongoUri,
+                                                                   StubDownstream customerService, StubDownstream accountService) {
+        return new SpringApplicationBuilder(MicroserviceCreditApplication.class)
+                .properties(Map.of(
+                        "server.port", "0",
+                        "spring.data.mongodb.uri", mongoUri,
+                        "credit.clients.customer.base-url", "http://localhost:" + customerService.port() + "/customers",
+                        "credit.clients.account.base-url", "http://localhost:" + accountService.port() + "/",
+                        "logging.level.root", "WARN"))
+                .run();
+    }
+
+    // Pool propio del generador de carga, dimensionado para no ser él quien limite las solicitudes en curso
+    static WebClient loadClient(int port, int maxInFlight) {
+        ConnectionProvider provider = ConnectionProvider.builder("load-harness")
+                .maxConnections(maxInFlight)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+    }
+}
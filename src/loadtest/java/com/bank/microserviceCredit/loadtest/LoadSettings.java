@@ -0,0 +1,55 @@
+package com.bank.microserviceCredit.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades de sistema load.* (p. ej. -Dload.rate=500).
+ *
+ * @param rate            Solicitudes por segundo que se lanzan en total, con independencia de lo que tarden.
+ * @param warmup          Duración del calentamiento; sus latencias no se registran.
+ * @param duration        Duración de la medición.
+ * @param mix             Peso relativo de cada operación (create, get, update, posting, overdue, eligibility, report).
+ * @param customers       Número de clientes distintos que usan las solicitudes.
+ * @param seedCredits     Créditos que se crean antes de empezar, para las lecturas y actualizaciones.
+ * @param customerLatency Latencia simulada del servicio de clientes.
+ * @param accountLatency  Latencia simulada del servicio de cuentas.
+ * @param maxInFlight     Máximo de solicitudes en curso; por encima se descartan y se cuentan como tales.
+ * @param mongoUri        URI de un MongoDB externo; si está vacía se arranca uno embebido.
+ */
+record LoadSettings(int rate, Duration warmup, Duration duration, Map<String, Integer> mix, int customers, int seedCredits,
+                    Duration customerLatency, Duration accountLatency, int maxInFlight, String mongoUri) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.rate", 200),
+                duration("load.warmup", "10s"),
+                duration("load.duration", "30s"),
+                mix(System.getProperty("load.mix", "create=15,get=35,update=15,overdue=15,eligibility=10,report=10")),
+                Integer.getInteger("load.customers", 1_000),
+                Integer.getInteger("load.seed-credits", 2_000),
+                duration("load.customer-latency", "20ms"),
+                duration("load.account-latency", "30ms"),
+                Integer.getInteger("load.max-in-flight", 2_000),
+                System.getProperty("load.mongo-uri", ""));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Formato de load.mix inválido, se esperaba operación=peso: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
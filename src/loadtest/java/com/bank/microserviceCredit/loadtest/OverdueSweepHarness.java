@@ -0,0 +1,120 @@
+package com.bank.microserviceCredit.loadtest;
+
+import com.bank.microserviceCredit.MicroserviceCreditApplication;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.business.overdue.OverdueDebtSweeper;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.repository.ISweepCheckpointRepository;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Mide el rendimiento del barrido de créditos vencidos sobre un conjunto sembrado: inserta créditos con dueDate
+ * repartido en los últimos días (y una parte en el futuro), ejecuta un barrido completo y luego uno incremental,
+ * y compara la consulta de deudas vencidas antes y después de marcar.
+ * <p>
+ * Parámetros (-D): sweep.credits, sweep.days, sweep.customers, sweep.partition-size, sweep.concurrency y
+ * load.mongo-uri (vacío = Mongo embebido; si se indica uno externo debe ser una base vacía).
+ */
+public final class OverdueSweepHarness {
+
+    private static final int INSERT_BATCH = 5_000;
+    private static final int LOOKUPS = 2_000;
+
+    private OverdueSweepHarness() {
+    }
+
+    public static void main(String[] args) {
+        int credits = Integer.getInteger("sweep.credits", 500_000);
+        int days = Integer.getInteger("sweep.days", 365);
+        int customers = Integer.getInteger("sweep.customers", 50_000);
+        String externalUri = System.getProperty("load.mongo-uri", "");
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongo = externalUri.isBlank() ? LoadHarness.startMongo() : null;
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(MicroserviceCreditApplication.class)
+                     .properties(Map.of(
+                             "server.port", "0",
+                             "spring.data.mongodb.uri", LoadHarness.mongoUri(externalUri, mongo),
+                             // El barrido lo lanza la prueba; el planificado y la bandeja de salida no deben interferir
+                             "credit.overdue-sweep.enabled", "false",
+                             "credit.overdue-sweep.partition-size", System.getProperty("sweep.partition-size", "1d"),
+                             "credit.overdue-sweep.concurrency", System.getProperty("sweep.concurrency", "4"),
+                             "credit.outbox.enabled", "false",
+                             "logging.level.root", "WARN"))
+                     .run()) {
+
+            ReactiveMongoTemplate mongoTemplate = application.getBean(ReactiveMongoTemplate.class);
+            OverdueDebtSweeper sweeper = application.getBean(OverdueDebtSweeper.class);
+            ICreditRepository creditRepository = application.getBean(ICreditRepository.class);
+
+            System.out.printf("Sembrando %d créditos con vencimientos en los últimos %d días...%n", credits, days);
+            long seedStart = System.nanoTime();
+            seed(mongoTemplate, credits, days, customers);
+            System.out.printf("Siembra: %s%n", Duration.ofNanos(System.nanoTime() - seedStart));
+
+            System.out.printf("Consulta sin marcas (compara dueDate): %.1f µs por cliente%n", lookupMicros(creditRepository, null, customers));
+
+            long sweepStart = System.nanoTime();
+            long flagged = sweeper.sweep().block();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - sweepStart);
+            System.out.printf("Barrido completo: %d créditos marcados en %s (%.0f créditos/s)%n",
+                    flagged, elapsed, flagged / Math.max(1e-9, elapsed.toNanos() / 1e9));
+
+            long incrementalStart = System.nanoTime();
+            long incremental = sweeper.sweep().block();
+            System.out.printf("Barrido incremental: %d créditos en %s%n", incremental, Duration.ofNanos(System.nanoTime() - incrementalStart));
+
+            // El barrido planificado está desactivado, así que sweeper.sweptUntil() es null: se pasa el punto de control
+            LocalDateTime sweptUntil = application.getBean(ISweepCheckpointRepository.class)
+                    .findById("overdue-debt-sweep").block().getSweptUntil();
+            System.out.printf("Consulta puntual sobre la marca overdue: %.1f µs por cliente%n",
+                    lookupMicros(creditRepository, sweptUntil, customers));
+        }
+    }
+
+    private static void seed(ReactiveMongoTemplate mongoTemplate, int credits, int days, int customers) {
+        LocalDateTime now = LocalDateTime.now();
+        Flux.range(0, (credits + INSERT_BATCH - 1) / INSERT_BATCH)
+                .concatMap(batch -> mongoTemplate.insert(IntStream.range(batch * INSERT_BATCH, Math.min(credits, (batch + 1) * INSERT_BATCH))
+                        .mapToObj(i -> credit(i, now, days, customers))
+                        .toList(), CreditEntity.class).then())
+                .blockLast();
+    }
+
+    // Una quinta parte vence en el futuro y una de cada diez está saldada, para que no todo cuente como deuda vencida
+    private static CreditEntity credit(int index, LocalDateTime now, int days, int customers) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long minutes = random.nextLong(days * 24L * 60L);
+        LocalDateTime dueDate = random.nextInt(5) == 0 ? now.plusMinutes(minutes / 10 + 1) : now.minusMinutes(minutes);
+        return CreditEntity.builder()
+                .customerId("customer-" + index % customers)
+                .type("BUSINESS")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(random.nextInt(10) == 0 ? 0.0 : random.nextDouble(1, 10_000)))
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .dueDate(dueDate)
+                .build();
+    }
+
+    // sweptUntil null = comparación de dueDate con now; con valor = marca overdue más el tramo sin barrer
+    private static double lookupMicros(ICreditRepository repository, LocalDateTime sweptUntil, int customers) {
+        long start = System.nanoTime();
+        Flux.range(0, LOOKUPS)
+                .concatMap(i -> repository.existsOverdueDebt("customer-" + ThreadLocalRandom.current().nextInt(customers),
+                        sweptUntil, LocalDateTime.now()))
+                .blockLast();
+        return (System.nanoTime() - start) / 1_000.0 / LOOKUPS;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.microserviceCredit.loadtest;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Servidores Netty que sustituyen al servicio de clientes (:8082) y al de cuentas (:8081) con una latencia fija.
+ * Los clientes cuyo ID empieza por "missing" no existen (404); el resto responde 200.
+ */
+final class StubDownstream implements AutoCloseable {
+
+    private final DisposableServer server;
+
+    private StubDownstream(DisposableServer server) {
+        this.server = server;
+    }
+
+    static StubDownstream customerService(Duration latency) {
+        return new StubDownstream(HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/customers/{id}", (request, response) -> {
+                    String id = request.param("id");
+                    boolean exists = id != null && !id.startsWith("missing");
+                    return Mono.delay(latency).then(response.status(exists ? 200 : 404)
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just(exists ? "{\"id\":\"" + id + "\"}" : "{}"))
+                            .then());
+                }))
+                .bindNow());
+    }
+
+    static StubDownstream accountService(Duration latency) {
+        return new StubDownstream(HttpServer.create()
+                .port(0)
+                .route(routes -> routes.put("/accounts/{id}", (request, response) -> request.receive().then()
+                        .then(Mono.delay(latency))
+                        .then(response.status(200).send().then())))
+                .bindNow());
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
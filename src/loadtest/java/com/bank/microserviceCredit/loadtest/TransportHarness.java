@@ -0,0 +1,174 @@
+package com.bank.microserviceCredit.loadtest;
+
+import com.bank.microserviceCredit.MicroserviceCreditApplication;
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.business.service.ICreditService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.rsocket.context.RSocketServerInitializedEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Compara la misma consulta por HTTP/JSON (CreditController) y por RSocket/CBOR (CreditRSocketController):
+ * marca de tarjeta activa, créditos de un cliente y elegibilidad por lotes. El servicio se sustituye por uno
+ * en memoria con respuestas fijas, de modo que solo se mide el transporte y la codificación, sin MongoDB.
+ * <p>
+ * Bucle cerrado: cada escenario lanza rsocket.requests solicitudes con rsocket.concurrency en curso, tras
+ * rsocket.warmup de calentamiento. Otros parámetros (-D): rsocket.credits (créditos por cliente) y
+ * rsocket.batch (clientes por consulta de elegibilidad).
+ */
+public final class TransportHarness {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int CUSTOMERS = 10_000;
+
+    private TransportHarness() {
+    }
+
+    public static void main(String[] args) {
+        int requests = Integer.getInteger("rsocket.requests", 50_000);
+        int warmup = Integer.getInteger("rsocket.warmup", 20_000);
+        int concurrency = Integer.getInteger("rsocket.concurrency", 64);
+        int creditsPerCustomer = Integer.getInteger("rsocket.credits", 5);
+        int batch = Integer.getInteger("rsocket.batch", 100);
+        AtomicInteger rsocketPort = new AtomicInteger();
+
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(MicroserviceCreditApplication.class)
+                .properties(Map.of(
+                        "server.port", "0",
+                        "spring.rsocket.server.port", "0",
+                        "credit.overdue-sweep.enabled", "false",
+                        "credit.outbox.enabled", "false",
+                        "credit.mongo-indexes.enabled", "false",
+                        "logging.level.root", "WARN"))
+                .initializers(context -> ((GenericApplicationContext) context).registerBean(ICreditService.class,
+                        () -> stubService(creditsPerCustomer), definition -> definition.setPrimary(true)))
+                .listeners((ApplicationListener<ApplicationEvent>) event -> {
+                    if (event instanceof RSocketServerInitializedEvent initialized) {
+                        rsocketPort.set(initialized.getServer().address().getPort());
+                    }
+                })
+                .run()) {
+
+            int httpPort = ((WebServerApplicationContext) application).getWebServer().getPort();
+            WebClient rest = LoadHarness.loadClient(httpPort, concurrency);
+            RSocketRequester rsocket = application.getBean(RSocketRequester.Builder.class).tcp("localhost", rsocketPort.get());
+            System.out.printf("RSocket: %s en una conexión; HTTP: hasta %d conexiones. %d solicitudes, %d en curso%n",
+                    rsocket.dataMimeType(), concurrency, requests, concurrency);
+            System.out.printf("%n%-12s %-8s %9s %11s %10s %10s %10s %10s%n", "escenario", "vía", "count", "sol/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+            compare("flag", requests, warmup, concurrency,
+                    customerId -> rest.get().uri("/api/credits/customer/{id}/has-active-card", customerId)
+                            .retrieve().bodyToMono(Boolean.class).then(),
+                    customerId -> rsocket.route("credits.customer.{id}.has-active-card", customerId)
+                            .retrieveMono(Boolean.class).then());
+
+            compare("credits", requests, warmup, concurrency,
+                    customerId -> rest.get().uri("/api/credits/customer/{id}", customerId)
+                            .retrieve().bodyToFlux(Map.class).then(),
+                    customerId -> rsocket.route("credits.customer.{id}", customerId)
+                            .retrieveFlux(Map.class).then());
+
+            int batchRequests = Math.max(1, requests / batch);
+            compare("eligibility", batchRequests, Math.max(1, warmup / batch), concurrency,
+                    customerId -> rest.post().uri("/api/credits/customers/eligibility").bodyValue(batchOf(batch))
+                            .retrieve().bodyToFlux(Map.class).then(),
+                    customerId -> rsocket.route("credits.customers.eligibility").data(Flux.fromIterable(batchOf(batch)))
+                            .retrieveFlux(Map.class).then());
+
+            rsocket.dispose();
+        }
+    }
+
+    private static void compare(String scenario, int requests, int warmup, int concurrency,
+                                Function<String, Mono<Void>> rest, Function<String, Mono<Void>> rsocket) {
+        run(scenario, "rest", requests, warmup, concurrency, rest);
+        run(scenario, "rsocket", requests, warmup, concurrency, rsocket);
+    }
+
+    private static void run(String scenario, String transport, int requests, int warmup, int concurrency, Function<String, Mono<Void>> call) {
+        execute(warmup, concurrency, call, null);
+        Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        long start = System.nanoTime();
+        execute(requests, concurrency, call, histogram);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-12s %-8s %9d %11.0f %10.3f %10.3f %10.3f %10.3f%n", scenario, transport,
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1_000.0, histogram.getValueAtPercentile(99) / 1_000.0,
+                histogram.getValueAtPercentile(99.9) / 1_000.0, histogram.getMaxValue() / 1_000.0);
+    }
+
+    private static void execute(int requests, int concurrency, Function<String, Mono<Void>> call, Histogram histogram) {
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    long begin = System.nanoTime();
+                    return call.apply(customerId()).doOnSuccess(done -> {
+                        if (histogram != null) {
+                            histogram.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, (System.nanoTime() - begin) / 1_000)));
+                        }
+                    });
+                }), concurrency)
+                .blockLast();
+    }
+
+    private static String customerId() {
+        return "customer-" + ThreadLocalRandom.current().nextInt(CUSTOMERS);
+    }
+
+    private static List<String> batchOf(int size) {
+        return IntStream.range(0, size).mapToObj(i -> customerId()).toList();
+    }
+
+    // stubOnly: sin registro de invocaciones, que crecería con cada solicitud
+    private static ICreditService stubService(int creditsPerCustomer) {
+        ICreditService service = mock(ICreditService.class, withSettings().stubOnly());
+        when(service.hasActiveCreditCard(anyString())).thenReturn(Mono.just(true));
+        when(service.findByCustomerId(anyString())).thenAnswer(invocation -> Flux.range(0, creditsPerCustomer)
+                .map(i -> credit(invocation.getArgument(0), i)));
+        when(service.checkEligibility(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.<List<String>>getArgument(0))
+                .map(customerId -> new CustomerEligibilityDto(customerId, true, false)));
+        return service;
+    }
+
+    private static CreditDto credit(String customerId, int index) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return CreditDto.builder()
+                .id(customerId + "-credit-" + index)
+                .customerId(customerId)
+                .type("CREDIT_CARD")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.0))
+                .active(true)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .dueDate(createdAt.plusMonths(1))
+                .version(3L)
+                .build();
+    }
+}
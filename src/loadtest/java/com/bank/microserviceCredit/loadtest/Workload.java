@@ -0,0 +1,156 @@
+package com.bank.microserviceCredit.loadtest;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.api.credit.PostingRequest;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDto;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Operaciones de la carga mixta contra la API de créditos y selección ponderada entre ellas.
+ */
+final class Workload {
+
+    private static final ParameterizedTypeReference<ResponseDto<CreditDto>> CREDIT_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final int ELIGIBILITY_BATCH = 50;
+
+    private final WebClient client;
+    private final int customers;
+    private final Map<String, Supplier<Mono<Integer>>> operations;
+    private final String[] weightedOperations;
+    private List<String> creditIds = List.of();
+    private List<String> creditCardIds = List.of();
+
+    Workload(WebClient client, int customers, Map<String, Integer> mix) {
+        this.client = client;
+        this.customers = customers;
+        this.operations = Map.of(
+                "create", this::create,
+                "get", this::get,
+                "update", this::update,
+                "posting", this::posting,
+                "overdue", this::overdue,
+                "eligibility", this::eligibility,
+                "report", this::report);
+        // Tabla con cada operación repetida según su peso: elegir es un acceso aleatorio sin búsquedas
+        this.weightedOperations = mix.entrySet().stream()
+                .peek(entry -> {
+                    if (!operations.containsKey(entry.getKey())) {
+                        throw new IllegalArgumentException("Operación desconocida en load.mix: " + entry.getKey());
+                    }
+                })
+                .flatMap(entry -> IntStream.range(0, entry.getValue()).mapToObj(i -> entry.getKey()))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Crea los créditos iniciales (una tarjeta de cada cuatro) para las lecturas y actualizaciones.
+     */
+    Mono<Void> seed(int credits, int concurrency) {
+        return Flux.range(0, credits)
+                .flatMap(i -> client.post().uri("/api/credits")
+                        .bodyValue(request(i % 4 == 0 ? "CREDIT_CARD" : "BUSINESS"))
+                        .retrieve()
+                        .bodyToMono(CREDIT_RESPONSE)
+                        .map(ResponseDto::getData), concurrency)
+                .collectList()
+                .doOnNext(created -> {
+                    creditIds = created.stream().map(CreditDto::getId).toList();
+                    creditCardIds = created.stream().filter(credit -> "CREDIT_CARD".equals(credit.getType())).map(CreditDto::getId).toList();
+                })
+                .then();
+    }
+
+    String nextOperation() {
+        return weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+    }
+
+    /**
+     * Ejecuta la operación y devuelve el código HTTP, descartando el cuerpo de la respuesta.
+     */
+    Mono<Integer> execute(String operation) {
+        return operations.get(operation).get();
+    }
+
+    private Mono<Integer> create() {
+        return client.post().uri("/api/credits").bodyValue(request("BUSINESS")).exchangeToMono(Workload::status);
+    }
+
+    private Mono<Integer> get() {
+        return client.get().uri("/api/credits/{id}", pick(creditIds)).exchangeToMono(Workload::status);
+    }
+
+    private Mono<Integer> update() {
+        CreditRequest request = request("CREDIT_CARD");
+        request.setBalance(Money.of(ThreadLocalRandom.current().nextDouble(0, 5_000)));
+        return client.put().uri("/api/credits/{id}", pick(creditCardIds)).bodyValue(request).exchangeToMono(Workload::status);
+    }
+
+    // Cargo o pago pequeño con clave nueva; los rechazos por línea o saldo (422) también son respuestas esperadas
+    private Mono<Integer> posting() {
+        PostingRequest request = PostingRequest.builder()
+                .idempotencyKey(UUID.randomUUID().toString())
+                .type(ThreadLocalRandom.current().nextBoolean() ? "CHARGE" : "PAYMENT")
+                .amount(Money.ofMinor(ThreadLocalRandom.current().nextInt(100, 20_000)))
+                .build();
+        return client.post().uri("/api/credits/{id}/postings", pick(creditIds)).bodyValue(request).exchangeToMono(Workload::status);
+    }
+
+    private Mono<Integer> overdue() {
+        return client.get().uri("/api/credits/customer/{id}/has-overdue-debts", randomCustomer()).exchangeToMono(Workload::status);
+    }
+
+    private Mono<Integer> eligibility() {
+        List<String> ids = IntStream.range(0, ELIGIBILITY_BATCH).mapToObj(i -> randomCustomer()).toList();
+        return client.post().uri("/api/credits/customers/eligibility")
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(ids)
+                .exchangeToMono(Workload::status);
+    }
+
+    private Mono<Integer> report() {
+        LocalDate today = LocalDate.now();
+        return client.get().uri(uri -> uri.path("/api/credits/report/summary")
+                        .queryParam("startDate", today.minusDays(7).atStartOfDay())
+                        .queryParam("endDate", today.plusDays(1).atStartOfDay())
+                        .build())
+                .exchangeToMono(Workload::status);
+    }
+
+    private CreditRequest request(String type) {
+        CreditRequest request = new CreditRequest();
+        request.setCustomerId(randomCustomer());
+        request.setType(type);
+        request.setCreditLimit(Money.of(10_000.0));
+        request.setBalance(Money.of(2_500.0));
+        request.setActive(true);
+        return request;
+    }
+
+    private String randomCustomer() {
+        return "customer-" + ThreadLocalRandom.current().nextInt(customers);
+    }
+
+    private static String pick(List<String> ids) {
+        return ids.isEmpty() ? "missing" : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static Mono<Integer> status(ClientResponse response) {
+        return response.releaseBody().thenReturn(response.statusCode().value());
+    }
+}
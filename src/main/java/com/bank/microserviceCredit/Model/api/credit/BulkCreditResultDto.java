@@ -0,0 +1,13 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkCreditResultDto {
+    private long index; // Posición del crédito en la petición de carga masiva
+    private String status; // "SUCCESS" o "ERROR"
+    private CreditDto credit; // Crédito creado (solo si status es SUCCESS)
+    private String message; // Motivo del rechazo (solo si status es ERROR)
+}
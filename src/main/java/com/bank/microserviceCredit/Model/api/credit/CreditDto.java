@@ -1,5 +1,6 @@
 package com.bank.microserviceCredit.Model.api.credit;
 
+import com.bank.microserviceCredit.Model.api.shared.Money;
 import lombok.Builder;
 import lombok.Data;
 
@@ -11,11 +12,12 @@ public class CreditDto {
     private String id;
     private String customerId;
     private String type;
-    private Double creditLimit;
-    private Double balance;
+    private Money creditLimit;
+    private Money balance;
     private boolean active; // Indica si el crédito o tarjeta está activo
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime dueDate; // Fecha de vencimiento
+    private Long version; // Versión vigente; se envía en CreditRequest.version para actualizar sin pisar cambios ajenos
 
 }
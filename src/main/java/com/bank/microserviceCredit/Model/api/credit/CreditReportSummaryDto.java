@@ -0,0 +1,19 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditReportSummaryDto {
+    private String day; // Día de creación (yyyy-MM-dd, zona horaria del servicio)
+    private String type; // Tipo de crédito
+    private long count; // Créditos creados ese día
+    private double totalBalance; // Suma de saldos
+    private double totalCreditLimit; // Suma de líneas de crédito
+    private double utilization; // totalBalance / totalCreditLimit (0 si no hay línea)
+}
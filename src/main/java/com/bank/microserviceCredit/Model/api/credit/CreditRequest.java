@@ -1,13 +1,15 @@
 package com.bank.microserviceCredit.Model.api.credit;
 
+import com.bank.microserviceCredit.Model.api.shared.Money;
 import lombok.Data;
 
 @Data
 public class CreditRequest {
     private String customerId;
     private String type; // "PERSONAL", "BUSINESS", o "CREDIT_CARD"
-    private Double creditLimit;
-    private Double balance;
+    private Money creditLimit;
+    private Money balance;
     private boolean active; // Indica si el crédito o tarjeta está activa
+    private Long version; // Opcional en la actualización: si se indica, solo se aplica si el crédito sigue en esa versión
 
 }
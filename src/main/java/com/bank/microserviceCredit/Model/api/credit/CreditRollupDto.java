@@ -0,0 +1,18 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CreditRollupDto {
+    private String granularity; // "DAY" u "HOUR"
+    private LocalDateTime bucket; // Inicio del intervalo
+    private String type; // Tipo de crédito
+    private long count; // Créditos vigentes creados en el intervalo
+    private double totalBalance; // Suma de saldos
+    private double totalCreditLimit; // Suma de líneas de crédito
+    private double utilization; // totalBalance / totalCreditLimit (0 si no hay línea)
+}
@@ -0,0 +1,16 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerEligibilityDto {
+    private String customerId;
+    private boolean hasActiveCard; // Tiene al menos una tarjeta de crédito activa
+    private boolean hasOverdueDebts; // Tiene algún crédito vencido con saldo pendiente
+}
@@ -0,0 +1,21 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class CustomerPortfolioDto {
+    private String customerId;
+    private int creditCount;
+    private Map<String, Integer> creditsByType; // Número de créditos por tipo ("PERSONAL", "BUSINESS", "CREDIT_CARD")
+    private Money totalBalance;
+    private Money totalCreditLimit;
+    private boolean hasActiveCard; // Tiene al menos una tarjeta de crédito activa
+    private boolean hasOverdueDebts; // Tiene algún crédito vencido con saldo pendiente
+    private LocalDateTime nearestDueDate; // Vencimiento más próximo entre los créditos con saldo pendiente
+}
@@ -0,0 +1,18 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingRequest {
+    private String creditId; // Crédito destino (solo en el modo por lotes; en /{id}/postings lo da la ruta)
+    private String idempotencyKey; // Clave única del movimiento: reenviar la misma clave no lo aplica dos veces
+    private String type; // "CHARGE" (aumenta el saldo) o "PAYMENT" (lo reduce)
+    private Money amount; // Importe positivo, redondeado al céntimo al leer el JSON
+}
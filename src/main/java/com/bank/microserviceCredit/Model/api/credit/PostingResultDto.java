@@ -0,0 +1,17 @@
+package com.bank.microserviceCredit.Model.api.credit;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class PostingResultDto {
+    private long index; // Posición del movimiento en la petición por lotes
+    private String creditId;
+    private String idempotencyKey;
+    private String status; // "APPLIED", "DUPLICATE", "REJECTED", "NOT_FOUND" o "ERROR" (reintentable con la misma clave)
+    private Money balance; // Saldo tras aplicar el movimiento (o el vigente si es DUPLICATE)
+    private Long version; // Versión del crédito tras el movimiento
+    private String message; // Motivo del rechazo
+}
@@ -0,0 +1,89 @@
+package com.bank.microserviceCredit.Model.api.shared;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Importe en punto fijo: céntimos en un long, sin errores de redondeo binario al sumar ni comparar.
+ * <p>
+ * En JSON viaja como número con dos decimales (10000.00) y en Mongo como Decimal128 (ver MongoConversionsConfig);
+ * los documentos anteriores con importes double se leen redondeando al céntimo.
+ *
+ * @param minorUnits Importe en céntimos.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_UNIT = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    // Redondea al céntimo más cercano; los importes double guardados ya tienen como mucho dos decimales
+    public static Money of(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Importe no válido: " + amount);
+        }
+        return ofMinor(Math.round(amount * MINOR_PER_UNIT));
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // Valor numérico tal como llega de Mongo o de un Document: Double, Integer, Long, BigDecimal o Decimal128
+    public static Money valueOf(Number amount) {
+        if (amount == null) {
+            return null;
+        }
+        if (amount instanceof Integer || amount instanceof Long) {
+            return ofMinor(Math.multiplyExact(amount.longValue(), MINOR_PER_UNIT));
+        }
+        if (amount instanceof Double || amount instanceof Float) {
+            return of(amount.doubleValue());
+        }
+        return of(amount instanceof BigDecimal decimal ? decimal : new BigDecimal(amount.toString()));
+    }
+
+    public static double toDouble(Money amount) {
+        return amount != null ? amount.toDouble() : 0.0;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public double toDouble() {
+        return minorUnits / (double) MINOR_PER_UNIT;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.microserviceCredit.Model.api.shared;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PageDto<T> {
+
+    private List<T> items; // Elementos de la página actual
+    private String nextCursor; // Token opaco para pedir la página siguiente (null si no hay más)
+    private int size; // Tamaño de página aplicado tras el límite máximo
+}
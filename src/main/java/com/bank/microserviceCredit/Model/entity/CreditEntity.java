@@ -1,26 +1,42 @@
 package com.bank.microserviceCredit.Model.entity;
+import com.bank.microserviceCredit.Model.api.shared.Money;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
 @Data
-@Builder
+@Builder(toBuilder = true)
 @Document(collection = "credits")
+@CompoundIndexes({
+        @CompoundIndex(name = "customer_type_active_idx", def = "{'customerId': 1, 'type': 1, 'active': 1}"),
+        @CompoundIndex(name = "customer_due_date_balance_idx", def = "{'customerId': 1, 'dueDate': 1, 'balance': 1}"),
+        @CompoundIndex(name = "customer_overdue_balance_idx", def = "{'customerId': 1, 'overdue': 1, 'balance': 1}"),
+        @CompoundIndex(name = "created_at_id_idx", def = "{'createdAt': 1, '_id': 1}"), // Paginación por cursor sin filtro o por fechas
+        @CompoundIndex(name = "customer_created_at_id_idx", def = "{'customerId': 1, 'createdAt': 1, '_id': 1}") // Paginación por cursor de un cliente
+})
 public class CreditEntity implements Serializable {
 
     @Id
     private String id;
     private String customerId;
     private String type; // Tipo de crédito: "PERSONAL", "BUSINESS", "CREDIT_CARD"
-    private Double creditLimit;
-    private Double balance;
+    private Money creditLimit;
+    private Money balance;
     private Boolean active; // Cambiado a Boolean para permitir valores nulos
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    @Indexed(name = "due_date_idx")
     private LocalDateTime dueDate; // Fecha de vencimiento
+    private Boolean overdue; // Deuda vencida (dueDate ya pasó y queda saldo): la fijan el barrido y las escrituras de importes; ausente si no
+    @Version
+    private Long version; // Control de concurrencia optimista; ausente en documentos anteriores (equivale a 0)
 
 
 }
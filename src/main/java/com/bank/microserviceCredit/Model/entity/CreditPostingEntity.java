@@ -0,0 +1,35 @@
+package com.bank.microserviceCredit.Model.entity;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de movimientos de saldo. El índice único (creditId, idempotencyKey) hace que cada clave se reclame una
+ * sola vez, por mucho tiempo que pase entre el envío y el reenvío: solo quien inserta la entrada puede aplicar el importe.
+ * La entrada se inserta PENDING antes del $inc sobre el crédito y pasa a APPLIED cuando el saldo ya lo refleja.
+ */
+@Data
+@Builder
+@Document(collection = "credit_postings")
+@CompoundIndex(name = "credit_idempotency_key_unique_idx", def = "{'creditId': 1, 'idempotencyKey': 1}", unique = true)
+public class CreditPostingEntity {
+
+    public static final String PENDING = "PENDING";
+    public static final String APPLIED = "APPLIED";
+
+    @Id
+    private String id; // También identifica el movimiento en pendingPostingIds del crédito
+    private String creditId;
+    private String idempotencyKey;
+    private String type; // "CHARGE" o "PAYMENT"
+    private Money amount;
+    private String status; // PENDING o APPLIED; los rechazados se eliminan para que la clave pueda reenviarse
+    private LocalDateTime createdAt;
+    private LocalDateTime appliedAt;
+}
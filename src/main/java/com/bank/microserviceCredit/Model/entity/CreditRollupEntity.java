@@ -0,0 +1,41 @@
+package com.bank.microserviceCredit.Model.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Totales de créditos por intervalo de tiempo (día u hora de creación) y tipo.
+ * Se mantienen con $inc en cada alta, modificación y baja; el _id es determinista para poder hacer upsert.
+ */
+@Data
+@Builder
+@Document(collection = "credit_rollups")
+@CompoundIndex(name = "granularity_bucket_idx", def = "{'granularity': 1, 'bucket': 1}")
+public class CreditRollupEntity {
+
+    public static final String DAY = "DAY";
+    public static final String HOUR = "HOUR";
+    public static final String UNKNOWN_TYPE = "UNKNOWN";
+
+    // Mismo formato que usa la reconstrucción ($dateToString "%Y-%m-%dT%H:%M") para generar el _id
+    public static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    @Id
+    private String id; // granularity|type|bucket
+    private String granularity; // "DAY" u "HOUR"
+    private LocalDateTime bucket; // Inicio del intervalo (hora local del servicio)
+    private String type; // Tipo de crédito
+    private long count;
+    private double totalBalance;
+    private double totalCreditLimit;
+
+    public static String idOf(String granularity, String type, LocalDateTime bucket) {
+        return granularity + "|" + type + "|" + BUCKET_FORMAT.format(bucket);
+    }
+}
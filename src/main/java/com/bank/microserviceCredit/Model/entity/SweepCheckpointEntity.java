@@ -0,0 +1,23 @@
+package com.bank.microserviceCredit.Model.entity;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Avance de un barrido en segundo plano, para continuar donde se quedó tras un reinicio.
+ * Solo avanza ($max), de modo que varias réplicas barriendo a la vez no lo hacen retroceder.
+ */
+@Data
+@Builder
+@Document(collection = "sweep_checkpoints")
+public class SweepCheckpointEntity {
+
+    @Id
+    private String id; // Nombre del barrido
+    private LocalDateTime sweptUntil; // Todo lo anterior a esta fecha ya está procesado
+    private LocalDateTime updatedAt;
+}
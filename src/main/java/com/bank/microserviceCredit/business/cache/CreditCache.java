@@ -0,0 +1,153 @@
+package com.bank.microserviceCredit.business.cache;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.configuration.CreditCacheProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caché local, acotada en tamaño y en tiempo, de créditos por ID y de la lista de créditos por cliente.
+ * Las escrituras del servicio la actualizan o invalidan y publican el cambio para las demás réplicas.
+ * Los DTO en caché se comparten entre solicitudes: no deben modificarse.
+ */
+@Slf4j
+@Component
+public class CreditCache implements MeterBinder {
+
+    private final CreditCacheProperties properties;
+    private final ICreditInvalidationBus invalidationBus;
+    private final String origin = UUID.randomUUID().toString();
+    private final AsyncCache<String, CreditDto> byId;
+    private final AsyncCache<String, List<CreditDto>> byCustomer;
+
+    private Disposable subscription;
+
+    public CreditCache(CreditCacheProperties properties, ICreditInvalidationBus invalidationBus) {
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.byCustomer = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxCustomerCredits())
+                .<String, List<CreditDto>>weigher((customerId, credits) -> Math.max(1, credits.size()))
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        subscription = invalidationBus.invalidations()
+                .filter(invalidation -> !origin.equals(invalidation.origin()))
+                .subscribe(invalidation -> invalidateLocally(invalidation.creditId(), invalidation.customerId()),
+                        error -> log.warn("Se interrumpió el canal de invalidación de créditos: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Devuelve el crédito en caché o lo carga; las consultas simultáneas del mismo ID comparten la carga.
+     * Un crédito inexistente no se guarda.
+     */
+    public Mono<CreditDto> getById(String id, Function<String, Mono<CreditDto>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(id);
+        }
+        return Mono.fromFuture(() -> byId.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public Flux<CreditDto> getByCustomerId(String customerId, Function<String, Flux<CreditDto>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(customerId);
+        }
+        return Mono.fromFuture(() -> byCustomer.get(customerId, (key, executor) -> loader.apply(key).collectList().toFuture()), true)
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Guarda el crédito recién creado o actualizado (escritura directa) e invalida la lista de su cliente.
+     * Si ya hay una versión más nueva en caché, se conserva: dos escrituras pueden terminar en otro orden.
+     */
+    public Mono<Void> written(CreditDto credit) {
+        if (properties.isEnabled()) {
+            CompletableFuture<CreditDto> fresh = CompletableFuture.completedFuture(credit);
+            // Sobre la vista asíncrona: una carga en curso se sustituye sin esperar a que termine
+            byId.asMap().compute(credit.getId(), (id, cached) -> holdsNewerVersion(cached, credit) ? cached : fresh);
+            byCustomer.synchronous().invalidate(credit.getCustomerId());
+        }
+        return publish(credit.getId(), credit.getCustomerId());
+    }
+
+    public Mono<Void> removed(String creditId, String customerId) {
+        invalidateLocally(creditId, customerId);
+        return publish(creditId, customerId);
+    }
+
+    // Inserción masiva: solo cambian las listas de los clientes afectados
+    public Mono<Void> customersChanged(Collection<String> customerIds) {
+        return Flux.fromIterable(customerIds)
+                .concatMap(customerId -> removed(null, customerId))
+                .then();
+    }
+
+    private void invalidateLocally(String creditId, String customerId) {
+        if (creditId != null) {
+            byId.synchronous().invalidate(creditId);
+        }
+        if (customerId != null) {
+            byCustomer.synchronous().invalidate(customerId);
+        }
+    }
+
+    // Un fallo del canal no debe hacer fallar la escritura ya confirmada: el TTL acota el desfase de las otras réplicas
+    private Mono<Void> publish(String creditId, String customerId) {
+        return invalidationBus.publish(new CreditInvalidation(origin, creditId, customerId))
+                .onErrorResume(error -> {
+                    log.warn("No se pudo publicar la invalidación del crédito {}: {}", creditId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static boolean holdsNewerVersion(CompletableFuture<CreditDto> cached, CreditDto credit) {
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return false;
+        }
+        CreditDto current = cached.getNow(null);
+        return current != null && version(current) > version(credit);
+    }
+
+    private static long version(CreditDto credit) {
+        return credit.getVersion() != null ? credit.getVersion() : 0L;
+    }
+
+    // Tasa de aciertos, cargas y desalojos como cache.* con las etiquetas cache=credits-by-id y cache=credits-by-customer
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "credits-by-id");
+        CaffeineCacheMetrics.monitor(registry, byCustomer, "credits-by-customer");
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.microserviceCredit.business.cache;
+
+/**
+ * Aviso de que un crédito cambió: las demás réplicas deben descartar sus copias del crédito y de la lista del cliente.
+ *
+ * @param origin     ID de la réplica que publicó el aviso (las réplicas ignoran sus propios avisos).
+ * @param creditId   ID del crédito modificado; nulo si solo cambió la lista del cliente.
+ * @param customerId ID del cliente del crédito.
+ */
+public record CreditInvalidation(String origin, String creditId, String customerId) {
+}
@@ -0,0 +1,83 @@
+package com.bank.microserviceCredit.business.cache;
+
+import com.bank.microserviceCredit.configuration.CustomerCacheProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Caché asíncrona y acotada del resultado de verificar un cliente en el servicio de clientes.
+ * Las consultas concurrentes de un mismo cliente comparten una única petición en curso.
+ */
+@Component
+public class CustomerVerificationCache implements MeterBinder {
+
+    private final AsyncCache<String, Boolean> cache;
+
+    @Autowired
+    public CustomerVerificationCache(CustomerCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    CustomerVerificationCache(CustomerCacheProperties properties, Ticker ticker) {
+        long positiveNanos = properties.getTtl().toNanos();
+        long negativeNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String key, Boolean exists, long currentTime) {
+                        return Boolean.TRUE.equals(exists) ? positiveNanos : negativeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Devuelve el resultado en caché o lo carga con el loader, compartiendo la carga en curso.
+     *
+     * @param customerId ID del cliente.
+     * @param loader     Verificación remota a ejecutar cuando no hay entrada vigente.
+     * @return true si el cliente existe.
+     */
+    public Mono<Boolean> get(String customerId, Function<String, Mono<Boolean>> loader) {
+        // suppressCancel: la cancelación de un suscriptor no debe abortar la petición que comparten los demás
+        return Mono.fromFuture(() -> cache.get(customerId, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public void invalidate(String customerId) {
+        cache.synchronous().invalidate(customerId);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    // Aciertos, fallos, cargas y desalojos como cache.* con la etiqueta cache=customer-verification
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "customer-verification");
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.microserviceCredit.business.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Canal de invalidación de la caché de créditos entre réplicas. La implementación por defecto es en memoria
+ * (una sola réplica o pruebas); un canal distribuido (Redis pub/sub, Kafka...) se activa con
+ * credit.credit-cache.invalidation y solo tiene que implementar esta interfaz.
+ */
+public interface ICreditInvalidationBus {
+
+    Mono<Void> publish(CreditInvalidation invalidation);
+
+    // Avisos publicados por cualquier réplica, incluida la propia
+    Flux<CreditInvalidation> invalidations();
+}
@@ -0,0 +1,32 @@
+package com.bank.microserviceCredit.business.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * Canal de invalidación dentro del proceso. Varias cachés que comparten esta instancia se comportan como réplicas.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credit.credit-cache", name = "invalidation", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryCreditInvalidationBus implements ICreditInvalidationBus {
+
+    private static final Duration EMIT_RETRY = Duration.ofMillis(10);
+
+    // Sin suscriptores los avisos se descartan; un suscriptor lento pierde avisos en lugar de frenar las escrituras
+    private final Sinks.Many<CreditInvalidation> sink = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<Void> publish(CreditInvalidation invalidation) {
+        return Mono.fromRunnable(() -> sink.emitNext(invalidation, Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY)));
+    }
+
+    @Override
+    public Flux<CreditInvalidation> invalidations() {
+        return sink.asFlux();
+    }
+}
@@ -0,0 +1,142 @@
+package com.bank.microserviceCredit.business.outbox;
+
+import com.bank.microserviceCredit.Model.api.credit.AccountBalanceUpdateRequest;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.business.repository.AccountBalanceSync;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.configuration.OutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Envía en segundo plano al servicio de cuentas los saldos de tarjeta pendientes de sincronizar.
+ * El pendiente (secuencia y turno) se escribe en el crédito en la misma operación que cambia su saldo, así que no se
+ * pierde aunque la instancia caiga justo después. Cada saldo se reserva con un findAndModify (claimedBy/claimedUntil)
+ * antes de enviarlo, de modo que dos réplicas no envían el mismo crédito a la vez; solo se da por enviado si la
+ * secuencia sigue siendo la leída. Los fallos se reprograman con espera exponencial. El envío es idempotente (saldo
+ * absoluto), por lo que un reenvío no causa daño.
+ */
+@Slf4j
+@Component
+public class AccountBalanceOutboxDispatcher {
+
+    private final ICreditRepository creditRepository;
+    private final WebClient accountWebClient;
+    private final OutboxProperties properties;
+    private final Counter sentCounter;
+    private final Counter rescheduledCounter;
+
+    private Disposable loop;
+
+    public AccountBalanceOutboxDispatcher(ICreditRepository creditRepository, WebClient accountWebClient,
+                                          OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.creditRepository = creditRepository;
+        this.accountWebClient = accountWebClient;
+        this.properties = properties;
+        this.sentCounter = outboxCounter(meterRegistry, "sent");
+        this.rescheduledCounter = outboxCounter(meterRegistry, "rescheduled");
+    }
+
+    private static Counter outboxCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("credit.outbox.dispatched")
+                .description("Saldos de tarjeta pendientes procesados por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        loop = Flux.interval(properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(error -> {
+                            log.warn("Error al despachar la bandeja de saldos: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loop != null) {
+            loop.dispose();
+        }
+    }
+
+    /**
+     * Despacha lotes mientras se reserven lotes completos.
+     *
+     * @return Señal de finalización cuando no quedan saldos pendientes cuyo turno haya llegado.
+     */
+    public Mono<Void> drain() {
+        return dispatchDue()
+                .expand(read -> read >= properties.getBatchSize() ? dispatchDue() : Mono.empty())
+                .then();
+    }
+
+    // Devuelve cuántos saldos se reservaron para decidir si hay que pedir otro lote
+    private Mono<Integer> dispatchDue() {
+        int workers = Math.max(1, Math.min(properties.getConcurrency(), properties.getBatchSize()));
+        int quota = (properties.getBatchSize() + workers - 1) / workers;
+        return Flux.range(0, workers)
+                .flatMap(worker -> dispatchNext(quota), workers)
+                .reduce(0, Integer::sum);
+    }
+
+    // Cada trabajador reserva y envía los saldos de uno en uno, hasta agotar su cuota o quedarse sin pendientes
+    private Mono<Integer> dispatchNext(int remaining) {
+        LocalDateTime now = LocalDateTime.now();
+        return creditRepository.claimAccountSync(now, now.plus(properties.getLease()))
+                .flatMap(sync -> dispatch(sync)
+                        .then(Mono.defer(() -> remaining > 1 ? dispatchNext(remaining - 1) : Mono.just(0)))
+                        .map(dispatched -> dispatched + 1))
+                .defaultIfEmpty(0);
+    }
+
+    private Mono<Void> dispatch(AccountBalanceSync sync) {
+        return send(sync.accountId(), sync.balance())
+                .then(Mono.defer(() -> creditRepository.acknowledgeAccountSync(sync, LocalDateTime.now())))
+                .doOnSuccess(ignored -> sentCounter.increment())
+                .onErrorResume(error -> {
+                    rescheduledCounter.increment();
+                    Duration backoff = backoff(sync.attempts());
+                    log.warn("No se pudo sincronizar el saldo de la cuenta {} (intento {}), se reintentará en {}: {}",
+                            sync.accountId(), sync.attempts() + 1, backoff, error.getMessage());
+                    return creditRepository.rescheduleAccountSync(sync, LocalDateTime.now().plus(backoff));
+                });
+    }
+
+    private Mono<Void> send(String accountId, Money balance) {
+        return accountWebClient.put()
+                .uri("/accounts/{id}", accountId)
+                .bodyValue(new AccountBalanceUpdateRequest(balance != null ? balance.toDouble() : null))
+                .retrieve()
+                .bodyToMono(Void.class);
+    }
+
+    // Espera exponencial acotada con un 20 % de variación para no reintentar todas las cuentas a la vez
+    private Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long exponential = initial << Math.min(attempts, 20);
+        long base = Math.min(max, exponential);
+        long jitter = (long) (base * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.min(max, base + jitter));
+    }
+}
@@ -0,0 +1,155 @@
+package com.bank.microserviceCredit.business.overdue;
+
+import com.bank.microserviceCredit.Model.entity.SweepCheckpointEntity;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.repository.ISweepCheckpointRepository;
+import com.bank.microserviceCredit.configuration.OverdueSweepProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Marca en segundo plano los créditos cuyo dueDate ya pasó, para que las consultas de deudas vencidas
+ * sean una búsqueda puntual por cliente sobre la marca overdue en lugar de comparar cada vencimiento con "now".
+ * <p>
+ * Cada barrido cubre el tramo [punto de control, now) dividido en particiones de dueDate que se marcan en paralelo
+ * con updateMany; el punto de control avanza en orden partición a partición y se guarda en Mongo, de modo que
+ * tras un reinicio se continúa donde se quedó. Marcar es idempotente: repetir una partición no tiene efecto.
+ * <p>
+ * Los vencimientos los escriben otros sistemas, así que antes de avanzar cada barrido reconcilia lo ya barrido: marca los
+ * créditos con saldo y dueDate anterior al punto de control que llegaron después de su tramo, y desmarca los que tienen
+ * el dueDate aplazado. Las escrituras de importes del servicio mantienen la marca al saldar o volver a cargar un crédito.
+ */
+@Slf4j
+@Component
+public class OverdueDebtSweeper {
+
+    static final String CHECKPOINT = "overdue-debt-sweep";
+
+    private final ICreditRepository creditRepository;
+    private final ISweepCheckpointRepository checkpointRepository;
+    private final OverdueSweepProperties properties;
+    private final Counter flaggedCounter;
+    private final Counter clearedCounter;
+    private final Timer sweepTimer;
+    private final AtomicReference<LocalDateTime> sweptUntil = new AtomicReference<>();
+
+    private Disposable loop;
+
+    public OverdueDebtSweeper(ICreditRepository creditRepository, ISweepCheckpointRepository checkpointRepository,
+                              OverdueSweepProperties properties, MeterRegistry meterRegistry) {
+        this.creditRepository = creditRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.flaggedCounter = Counter.builder("credit.overdue.flagged")
+                .description("Créditos marcados como vencidos por el barrido")
+                .register(meterRegistry);
+        this.clearedCounter = Counter.builder("credit.overdue.cleared")
+                .description("Créditos desmarcados por el barrido porque su vencimiento se aplazó")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("credit.overdue.sweep")
+                .description("Duración de cada barrido de vencimientos")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        loop = Flux.interval(Duration.ZERO, properties.getInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep()
+                        .onErrorResume(error -> {
+                            log.warn("Error en el barrido de créditos vencidos: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loop != null) {
+            loop.dispose();
+        }
+    }
+
+    /**
+     * Fecha hasta la que todos los vencimientos ya están marcados.
+     *
+     * @return null si el barrido está desactivado o aún no ha completado ninguna partición; en ese caso
+     *         las consultas deben comparar dueDate directamente.
+     */
+    public LocalDateTime sweptUntil() {
+        return properties.isEnabled() ? sweptUntil.get() : null;
+    }
+
+    /**
+     * Reconcilia lo ya barrido y marca los vencimientos entre el punto de control (o el dueDate más antiguo en el
+     * primer barrido) y ahora.
+     *
+     * @return Número de créditos marcados en este barrido, incluidos los que llegaron tarde a un tramo ya barrido.
+     */
+    public Mono<Long> sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Timer.Sample sample = Timer.start();
+        return checkpointRepository.findById(CHECKPOINT)
+                .map(SweepCheckpointEntity::getSweptUntil)
+                .doOnNext(this::advanceLocal)
+                .switchIfEmpty(Mono.defer(creditRepository::findEarliestDueDate))
+                // Sin vencimientos registrados no hay nada que marcar antes de ahora
+                .defaultIfEmpty(now)
+                .flatMap(from -> reconcile(from, now)
+                        .flatMap(late -> (from.isBefore(now) ? sweepRange(from, now) : checkpoint(now).thenReturn(0L))
+                                .map(flagged -> late + flagged)))
+                .doOnNext(flagged -> {
+                    flaggedCounter.increment(flagged);
+                    log.debug("Barrido de vencimientos: {} créditos marcados hasta {}", flagged, now);
+                })
+                .doFinally(signal -> sample.stop(sweepTimer));
+    }
+
+    // Devuelve cuántos créditos se marcaron tarde; los desmarcados van a su propio contador
+    private Mono<Long> reconcile(LocalDateTime sweptUntil, LocalDateTime now) {
+        return creditRepository.clearPostponedOverdue(now)
+                .doOnNext(clearedCounter::increment)
+                .then(creditRepository.markLateOverdue(sweptUntil));
+    }
+
+    // Particiones en paralelo; flatMapSequential entrega los resultados en orden para no saltarse ninguna al avanzar
+    private Mono<Long> sweepRange(LocalDateTime from, LocalDateTime to) {
+        Duration partitionSize = properties.getPartitionSize();
+        long partitions = Math.max(1, (Duration.between(from, to).toMillis() + partitionSize.toMillis() - 1) / partitionSize.toMillis());
+        return Flux.range(0, (int) Math.min(partitions, Integer.MAX_VALUE))
+                .map(i -> from.plus(partitionSize.multipliedBy(i)))
+                .flatMapSequential(start -> {
+                    LocalDateTime end = start.plus(partitionSize).isBefore(to) ? start.plus(partitionSize) : to;
+                    return creditRepository.markOverdue(start, end).map(flagged -> Tuples.of(end, flagged));
+                }, properties.getConcurrency())
+                // Fuera del flatMap: el punto de control solo avanza cuando terminaron todas las particiones anteriores
+                .concatMap(done -> checkpoint(done.getT1()).thenReturn(done.getT2()))
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Void> checkpoint(LocalDateTime until) {
+        return checkpointRepository.advance(CHECKPOINT, until)
+                .then(Mono.fromRunnable(() -> advanceLocal(until)));
+    }
+
+    private void advanceLocal(LocalDateTime until) {
+        sweptUntil.accumulateAndGet(until, (current, next) -> current == null || next.isAfter(current) ? next : current);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.microserviceCredit.business.portfolio;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Lo mínimo de un crédito que necesita la cartera del cliente, en campos primitivos para ocupar poco en memoria.
+ *
+ * @param id          ID del crédito.
+ * @param type        Tipo de crédito (instancia compartida: solo hay unos pocos valores distintos).
+ * @param active      Si el crédito está activo.
+ * @param balance     Saldo en céntimos (ver {@link Money}).
+ * @param creditLimit Línea de crédito en céntimos.
+ * @param dueDate     Vencimiento en milisegundos desde epoch, o {@link #NO_DUE_DATE}.
+ */
+public record CreditFacts(String id, String type, boolean active, long balance, long creditLimit, long dueDate) {
+
+    public static final long NO_DUE_DATE = Long.MAX_VALUE;
+
+    public static CreditFacts of(CreditEntity credit) {
+        return new CreditFacts(credit.getId(), shared(credit.getType()), Boolean.TRUE.equals(credit.getActive()),
+                minorUnits(credit.getBalance()), minorUnits(credit.getCreditLimit()),
+                credit.getDueDate() != null ? credit.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NO_DUE_DATE);
+    }
+
+    // Documento tal como llega del cursor inicial o del change stream (sin pasar por el conversor de la entidad)
+    static CreditFacts of(String id, Document credit) {
+        return new CreditFacts(id, shared(credit.getString("type")), Boolean.TRUE.equals(credit.getBoolean("active")),
+                minorUnits(credit.get("balance")), minorUnits(credit.get("creditLimit")),
+                credit.get("dueDate") instanceof Date dueDate ? dueDate.getTime() : NO_DUE_DATE);
+    }
+
+    static String idOf(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    private static String shared(String type) {
+        return type != null ? type.intern() : null;
+    }
+
+    private static long minorUnits(Money amount) {
+        return amount != null ? amount.minorUnits() : 0L;
+    }
+
+    // Double en los documentos anteriores, Decimal128 en los escritos como Money
+    private static long minorUnits(Object amount) {
+        if (amount instanceof Decimal128 decimal) {
+            return Money.of(decimal.bigDecimalValue()).minorUnits();
+        }
+        return amount instanceof Number number ? Money.valueOf(number).minorUnits() : 0L;
+    }
+}
@@ -0,0 +1,118 @@
+package com.bank.microserviceCredit.business.portfolio;
+
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerPortfolioDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Créditos de un cliente en un arreglo inmutable: un cliente suele tener pocos créditos, así que los totales
+ * se calculan al leer en lugar de mantener contadores. Cada cambio crea una copia (los lectores nunca ven estados
+ * a medias) y el registro ocupa un objeto y un arreglo por cliente.
+ */
+public final class CustomerPortfolio {
+
+    private static final CreditFacts[] NONE = new CreditFacts[0];
+
+    private final String customerId;
+    private final CreditFacts[] credits;
+
+    private CustomerPortfolio(String customerId, CreditFacts[] credits) {
+        this.customerId = customerId;
+        this.credits = credits;
+    }
+
+    public static CustomerPortfolio empty(String customerId) {
+        return new CustomerPortfolio(customerId, NONE);
+    }
+
+    public static CustomerPortfolio of(String customerId, Collection<CreditFacts> credits) {
+        return new CustomerPortfolio(customerId, credits.toArray(CreditFacts[]::new));
+    }
+
+    public String customerId() {
+        return customerId;
+    }
+
+    int size() {
+        return credits.length;
+    }
+
+    // Reemplaza el crédito con el mismo ID o lo añade
+    CustomerPortfolio with(CreditFacts credit) {
+        for (int i = 0; i < credits.length; i++) {
+            if (credits[i].id().equals(credit.id())) {
+                CreditFacts[] updated = credits.clone();
+                updated[i] = credit;
+                return new CustomerPortfolio(customerId, updated);
+            }
+        }
+        CreditFacts[] updated = Arrays.copyOf(credits, credits.length + 1);
+        updated[credits.length] = credit;
+        return new CustomerPortfolio(customerId, updated);
+    }
+
+    // null si el cliente se queda sin créditos, para que el mapa elimine la entrada
+    CustomerPortfolio without(String creditId) {
+        CreditFacts[] remaining = Arrays.stream(credits).filter(credit -> !credit.id().equals(creditId)).toArray(CreditFacts[]::new);
+        return remaining.length == 0 ? null : new CustomerPortfolio(customerId, remaining);
+    }
+
+    public boolean hasActiveCard() {
+        for (CreditFacts credit : credits) {
+            if (credit.active() && "CREDIT_CARD".equals(credit.type())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mismo criterio que la consulta en Mongo: dueDate anterior a "now" y saldo pendiente
+    public boolean hasOverdueDebts(long nowMillis) {
+        return nearestDueDate() < nowMillis;
+    }
+
+    private long nearestDueDate() {
+        long nearest = CreditFacts.NO_DUE_DATE;
+        for (CreditFacts credit : credits) {
+            if (credit.balance() > 0 && credit.dueDate() < nearest) {
+                nearest = credit.dueDate();
+            }
+        }
+        return nearest;
+    }
+
+    public CustomerEligibilityDto toEligibility(long nowMillis) {
+        return new CustomerEligibilityDto(customerId, hasActiveCard(), hasOverdueDebts(nowMillis));
+    }
+
+    public CustomerPortfolioDto toDto(long nowMillis) {
+        Map<String, Integer> byType = new LinkedHashMap<>();
+        long totalBalance = 0;
+        long totalCreditLimit = 0;
+        for (CreditFacts credit : credits) {
+            byType.merge(String.valueOf(credit.type()), 1, Integer::sum);
+            totalBalance += credit.balance();
+            totalCreditLimit += credit.creditLimit();
+        }
+        long nearest = nearestDueDate();
+        return CustomerPortfolioDto.builder()
+                .customerId(customerId)
+                .creditCount(credits.length)
+                .creditsByType(byType)
+                .totalBalance(Money.ofMinor(totalBalance))
+                .totalCreditLimit(Money.ofMinor(totalCreditLimit))
+                .hasActiveCard(hasActiveCard())
+                .hasOverdueDebts(nearest < nowMillis)
+                .nearestDueDate(nearest == CreditFacts.NO_DUE_DATE ? null
+                        : LocalDateTime.ofInstant(Instant.ofEpochMilli(nearest), ZoneId.systemDefault()))
+                .build();
+    }
+}
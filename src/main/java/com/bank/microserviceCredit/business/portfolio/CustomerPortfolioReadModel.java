@@ -0,0 +1,222 @@
+package com.bank.microserviceCredit.business.portfolio;
+
+import com.bank.microserviceCredit.configuration.PortfolioProperties;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cartera de créditos por cliente en memoria, para responder elegibilidad y resúmenes sin consultar Mongo.
+ * <p>
+ * Al arrancar se recorre la colección con una proyección mínima y después se aplica el change stream desde el
+ * operationTime leído antes de la carga, así que ningún cambio intermedio se pierde. El resume token del último
+ * evento permite reabrir el stream tras un corte sin recargar; si el servidor ya no tiene ese historial
+ * (o el stream se invalida) se vuelve a cargar todo. Mientras no está lista, el servicio consulta Mongo.
+ * <p>
+ * Solo escribe el hilo del stream; los lectores ven cada cartera como un valor inmutable.
+ * Requiere MongoDB en replica set.
+ */
+@Slf4j
+@Component
+public class CustomerPortfolioReadModel {
+
+    static final String COLLECTION = "credits";
+    // ChangeStreamHistoryLost y ChangeStreamFatalError: el resume token ya no sirve
+    private static final int HISTORY_LOST = 286;
+    private static final int FATAL_ERROR = 280;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PortfolioProperties properties;
+    private final Counter eventCounter;
+    private final Map<String, CustomerPortfolio> byCustomer = new ConcurrentHashMap<>();
+    // Necesario para las bajas: el evento delete solo trae el _id
+    private final Map<String, String> customerByCredit = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+    private volatile BsonValue resumeToken;
+    private volatile BsonTimestamp startAt;
+    private Disposable subscription;
+
+    public CustomerPortfolioReadModel(ReactiveMongoTemplate mongoTemplate, PortfolioProperties properties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.eventCounter = Counter.builder("credit.portfolio.events")
+                .description("Eventos del change stream aplicados a la cartera en memoria")
+                .register(meterRegistry);
+        Gauge.builder("credit.portfolio.customers", byCustomer, Map::size)
+                .description("Clientes con cartera en memoria")
+                .register(meterRegistry);
+        Gauge.builder("credit.portfolio.credits", customerByCredit, Map::size)
+                .description("Créditos en la cartera en memoria")
+                .register(meterRegistry);
+        Gauge.builder("credit.portfolio.ready", this, model -> model.ready ? 1 : 0)
+                .description("1 si la cartera en memoria está cargada y sirve las consultas")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        subscription = Flux.defer(this::session)
+                .repeat()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectBackoff())
+                        .maxBackoff(properties.getMaxReconnectBackoff())
+                        .doBeforeRetry(signal -> log.warn("Se reabre el change stream de la cartera: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Cartera del cliente; solo tiene sentido con {@link #isReady()}.
+     *
+     * @return Cartera vacía si el cliente no tiene créditos.
+     */
+    public CustomerPortfolio get(String customerId) {
+        CustomerPortfolio portfolio = byCustomer.get(customerId);
+        return portfolio != null ? portfolio : CustomerPortfolio.empty(customerId);
+    }
+
+    // Una sesión: carga completa si no hay posición desde la que reanudar y luego el stream hasta que termine
+    private Flux<ChangeStreamEvent<Document>> session() {
+        Mono<Void> position = resumeToken != null || startAt != null ? Mono.empty() : reload();
+        return position.thenMany(Flux.defer(this::changes))
+                .doOnNext(this::apply)
+                .doOnError(error -> {
+                    if (historyLost(error)) {
+                        log.warn("Se perdió el historial del change stream; se recarga la cartera completa");
+                        resetPosition();
+                    }
+                })
+                // El stream solo termina al invalidarse (colección eliminada o renombrada): el token ya no es válido
+                .doOnComplete(this::resetPosition);
+    }
+
+    private Mono<Void> reload() {
+        return mongoTemplate.executeCommand("{ hello: 1 }")
+                .flatMap(hello -> hello.get("operationTime") instanceof BsonTimestamp operationTime
+                        ? Mono.just(operationTime)
+                        : Mono.error(new IllegalStateException("La cartera en memoria requiere MongoDB en replica set")))
+                .flatMap(operationTime -> {
+                    byCustomer.clear();
+                    customerByCredit.clear();
+                    Query query = new Query();
+                    query.fields().include("customerId", "type", "active", "balance", "creditLimit", "dueDate");
+                    return mongoTemplate.find(query, Document.class, COLLECTION)
+                            .doOnNext(this::upsert)
+                            .then(Mono.fromRunnable(() -> {
+                                startAt = operationTime;
+                                ready = true;
+                                log.info("Cartera en memoria cargada: {} clientes, {} créditos", byCustomer.size(), customerByCredit.size());
+                            }));
+                });
+    }
+
+    private Flux<ChangeStreamEvent<Document>> changes() {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder().returnFullDocumentOnUpdate();
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        } else {
+            options.resumeAt(startAt);
+        }
+        return mongoTemplate.changeStream(COLLECTION, options.build(), Document.class);
+    }
+
+    private void apply(ChangeStreamEvent<Document> event) {
+        ChangeStreamDocument<Document> raw = event.getRaw();
+        if (raw != null && raw.getOperationType() != null) {
+            switch (raw.getOperationType()) {
+                // Sin documento completo el crédito ya se eliminó: llegará su propio evento delete
+                case INSERT, UPDATE, REPLACE -> {
+                    if (raw.getFullDocument() != null) {
+                        upsert(raw.getFullDocument());
+                    }
+                }
+                case DELETE -> remove(creditId(raw.getDocumentKey()));
+                default -> {
+                }
+            }
+        }
+        resumeToken = event.getResumeToken();
+        eventCounter.increment();
+    }
+
+    void upsert(Document credit) {
+        String id = CreditFacts.idOf(credit.get("_id"));
+        String customerId = credit.getString("customerId");
+        if (customerId == null) {
+            remove(id);
+            return;
+        }
+        String previousCustomer = customerByCredit.get(id);
+        if (previousCustomer != null && !previousCustomer.equals(customerId)) {
+            byCustomer.computeIfPresent(previousCustomer, (key, portfolio) -> portfolio.without(id));
+        }
+        CreditFacts facts = CreditFacts.of(id, credit);
+        CustomerPortfolio portfolio = byCustomer.compute(customerId,
+                (key, current) -> (current != null ? current : CustomerPortfolio.empty(key)).with(facts));
+        // Se reutiliza el customerId de la cartera para no guardar una copia del String por crédito
+        customerByCredit.put(id, portfolio.customerId());
+    }
+
+    void remove(String creditId) {
+        String customerId = customerByCredit.remove(creditId);
+        if (customerId != null) {
+            byCustomer.computeIfPresent(customerId, (key, portfolio) -> portfolio.without(creditId));
+        }
+    }
+
+    private void resetPosition() {
+        ready = false;
+        resumeToken = null;
+        startAt = null;
+    }
+
+    private static String creditId(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static boolean historyLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && (mongoException.getCode() == HISTORY_LOST || mongoException.getCode() == FATAL_ERROR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
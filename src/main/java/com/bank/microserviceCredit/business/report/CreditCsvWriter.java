@@ -0,0 +1,61 @@
+package com.bank.microserviceCredit.business.report;
+
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escribe créditos en formato CSV directamente en DataBuffers a medida que llegan del cursor,
+ * agrupando varias filas por buffer para no hacer una escritura de red por fila.
+ */
+public final class CreditCsvWriter {
+
+    static final String HEADER = "id,customerId,type,creditLimit,balance,active,dueDate,createdAt,updatedAt\n";
+    private static final int ROWS_PER_BUFFER = 256;
+
+    private CreditCsvWriter() {
+    }
+
+    public static Flux<DataBuffer> write(Flux<CreditEntity> credits, DataBufferFactory bufferFactory) {
+        Flux<DataBuffer> rows = credits
+                .buffer(ROWS_PER_BUFFER)
+                .map(chunk -> toBuffer(chunk, bufferFactory));
+        return Flux.concat(Flux.just(HEADER).map(header -> bufferFactory.wrap(header.getBytes(StandardCharsets.UTF_8))), rows);
+    }
+
+    private static DataBuffer toBuffer(List<CreditEntity> chunk, DataBufferFactory bufferFactory) {
+        StringBuilder csv = new StringBuilder(chunk.size() * 160);
+        for (CreditEntity credit : chunk) {
+            appendRow(csv, credit);
+        }
+        return bufferFactory.wrap(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void appendRow(StringBuilder csv, CreditEntity credit) {
+        appendField(csv, credit.getId()).append(',');
+        appendField(csv, credit.getCustomerId()).append(',');
+        appendField(csv, credit.getType()).append(',');
+        appendField(csv, credit.getCreditLimit()).append(',');
+        appendField(csv, credit.getBalance()).append(',');
+        appendField(csv, credit.getActive()).append(',');
+        appendField(csv, credit.getDueDate()).append(',');
+        appendField(csv, credit.getCreatedAt()).append(',');
+        appendField(csv, credit.getUpdatedAt()).append('\n');
+    }
+
+    // Campos nulos quedan vacíos; se escapan comillas, comas y saltos de línea según RFC 4180
+    private static StringBuilder appendField(StringBuilder csv, Object value) {
+        if (value == null) {
+            return csv;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return csv.append(text);
+        }
+        return csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
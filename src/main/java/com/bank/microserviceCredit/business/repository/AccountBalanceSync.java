@@ -0,0 +1,16 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+
+/**
+ * Saldo de tarjeta reservado por un despachador para enviarlo al servicio de cuentas.
+ * El saldo y la secuencia se leen del mismo documento de crédito en la misma operación que la reserva.
+ *
+ * @param accountId Identificador del crédito (la cuenta en el servicio de cuentas).
+ * @param balance   Saldo a enviar.
+ * @param sequence  Secuencia de sincronización leída junto al saldo; aumenta con cada escritura de importes.
+ * @param attempts  Envíos fallidos de esta secuencia.
+ * @param claimedBy Token de la reserva; solo quien lo tiene puede liberarla.
+ */
+public record AccountBalanceSync(String accountId, Money balance, long sequence, int attempts, String claimedBy) {
+}
@@ -0,0 +1,50 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de continuación para la paginación por clave sobre (createdAt, _id).
+ * Se serializa como un token opaco en Base64 URL-safe para que el cliente no dependa de su formato.
+ */
+public record CreditCursor(LocalDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static CreditCursor of(CreditEntity entity) {
+        return new CreditCursor(entity.getCreatedAt(), entity.getId());
+    }
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente.
+     *
+     * @param token Token opaco; nulo o vacío indica la primera página.
+     * @return Cursor decodificado, o null para empezar desde el inicio.
+     * @throws IllegalArgumentException si el token no es válido.
+     */
+    public static CreditCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+            String createdAt = raw.substring(0, separator);
+            return new CreditCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+}
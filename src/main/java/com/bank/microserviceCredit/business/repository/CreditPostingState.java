@@ -0,0 +1,24 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+
+import java.util.Set;
+
+/**
+ * Estado mínimo de un crédito para explicar por qué no se aplicó un movimiento.
+ *
+ * @param balance            Saldo vigente.
+ * @param creditLimit        Línea de crédito.
+ * @param version            Versión vigente (0 si el documento no tiene el campo).
+ * @param pendingPostingIds  Movimientos ya sumados al saldo que aún no constan como APPLIED en credit_postings.
+ * @param fencedPostingIds   Movimientos abandonados que otra solicitud está retomando; ya no se pueden aplicar.
+ * @param fencedBefore       Mayor id retomado ya resuelto: ese id y los anteriores tampoco se pueden aplicar (nulo si no hay).
+ */
+public record CreditPostingState(Money balance, Money creditLimit, long version, Set<String> pendingPostingIds,
+                                 Set<String> fencedPostingIds, String fencedBefore) {
+
+    // Mismo criterio que la condición de applyPostings
+    public boolean isFenced(String postingId) {
+        return fencedPostingIds.contains(postingId) || fencedBefore != null && postingId.compareTo(fencedBefore) <= 0;
+    }
+}
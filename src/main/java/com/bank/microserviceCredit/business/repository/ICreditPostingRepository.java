@@ -0,0 +1,12 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditPostingEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface ICreditPostingRepository extends
+        ReactiveMongoRepository<CreditPostingEntity, String>, ICreditPostingRepositoryCustom {
+    Flux<CreditPostingEntity> findByCreditIdAndIdempotencyKeyIn(String creditId, Collection<String> idempotencyKeys);
+}
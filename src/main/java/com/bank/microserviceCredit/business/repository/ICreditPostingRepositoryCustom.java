@@ -0,0 +1,22 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditPostingEntity;
+import com.mongodb.bulk.BulkWriteError;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ICreditPostingRepositoryCustom {
+
+    // Inserción masiva no ordenada; devuelve los errores por posición en la lista (clave duplicada: la clave ya estaba reclamada)
+    Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<CreditPostingEntity> postings);
+
+    // PENDING -> APPLIED; no toca las entradas que ya no están pendientes
+    Mono<Void> markApplied(Collection<String> ids, LocalDateTime appliedAt);
+
+    // Elimina la entrada solo si sigue PENDING (rechazada o abandonada), para que la clave pueda volver a enviarse
+    Mono<Boolean> deletePending(String id);
+}
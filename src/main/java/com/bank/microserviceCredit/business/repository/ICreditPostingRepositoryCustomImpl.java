@@ -0,0 +1,54 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditPostingEntity;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ICreditPostingRepositoryCustomImpl implements ICreditPostingRepositoryCustom {
+
+    private static final String ID = "_id";
+    private static final String STATUS = "status";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<CreditPostingEntity> postings) {
+        if (postings.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreditPostingEntity.class)
+                .insert(postings)
+                .execute()
+                .<Map<Integer, BulkWriteError>>thenReturn(Map.of())
+                .onErrorResume(error -> ICreditRepositoryCustomImpl.bulkWriteException(error) != null,
+                        error -> Mono.just(ICreditRepositoryCustomImpl.bulkWriteException(error).getWriteErrors().stream()
+                                .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()))));
+    }
+
+    @Override
+    public Mono<Void> markApplied(Collection<String> ids, LocalDateTime appliedAt) {
+        return mongoTemplate.updateMulti(Query.query(Criteria.where(ID).in(ids).and(STATUS).is(CreditPostingEntity.PENDING)),
+                        new Update().set(STATUS, CreditPostingEntity.APPLIED).set("appliedAt", appliedAt), CreditPostingEntity.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> deletePending(String id) {
+        return mongoTemplate.remove(Query.query(Criteria.where(ID).is(id).and(STATUS).is(CreditPostingEntity.PENDING)), CreditPostingEntity.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+}
@@ -8,8 +8,7 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 
 public interface ICreditRepository extends
-        ReactiveMongoRepository<CreditEntity, String> {
-    Mono<Boolean> existsByCustomerIdAndType(String customerId, String type);
+        ReactiveMongoRepository<CreditEntity, String>, ICreditRepositoryCustom {
     Flux<CreditEntity> findByCustomerId(String customerId);
 
     // Encuentra todos los créditos entre fechas específicas
@@ -0,0 +1,104 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditReportSummaryDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.mongodb.bulk.BulkWriteError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas que no se pueden expresar como métodos derivados de Spring Data.
+ */
+public interface ICreditRepositoryCustom {
+
+    // Página ordenada por (createdAt, _id) a continuación del cursor (null = primera página)
+    Flux<CreditEntity> findPage(CreditCursor after, int limit);
+
+    Flux<CreditEntity> findPageByCustomerId(String customerId, CreditCursor after, int limit);
+
+    Flux<CreditEntity> findPageByCreatedAtBetween(LocalDateTime start, LocalDateTime end, CreditCursor after, int limit);
+
+    // Consultas de elegibilidad cubiertas por índice: solo comprueban si existe un documento (limit 1, sin hidratar entidades)
+    Mono<Boolean> existsActiveCreditCard(String customerId);
+
+    // Con sweptUntil (barrido de vencimientos activo) basta la marca overdue más el tramo [sweptUntil, now) aún sin barrer;
+    // con null se compara dueDate con now en todos los créditos del cliente. Un vencimiento escrito por otro sistema en un tramo
+    // ya barrido cuenta desde el siguiente barrido, que lo reconcilia (markLateOverdue / clearPostponedOverdue)
+    Mono<Boolean> existsOverdueDebt(String customerId, LocalDateTime sweptUntil, LocalDateTime now);
+
+    // Ambas banderas para varios clientes en una sola agregación ($in + $group); solo devuelve clientes con créditos.
+    // sweptUntil tiene el mismo significado que en existsOverdueDebt
+    Flux<CustomerEligibilityDto> findEligibility(Collection<String> customerIds, LocalDateTime sweptUntil, LocalDateTime now);
+
+    // Vencimiento más antiguo de la colección (por índice), para el primer barrido sin punto de control
+    Mono<LocalDateTime> findEarliestDueDate();
+
+    // Marca overdue en los créditos con saldo y dueDate en [from, to) que aún no la tienen (updateMany sobre
+    // overdue_due_date_outstanding_idx). No incrementa la versión: la marca es un dato derivado y no debe provocar conflictos
+    Mono<Long> markOverdue(LocalDateTime from, LocalDateTime to);
+
+    // Créditos con saldo y dueDate anterior a sweptUntil sin marca: escritos (o con el vencimiento adelantado) después de que
+    // el barrido pasara por su tramo. Los marca y devuelve cuántos
+    Mono<Long> markLateOverdue(LocalDateTime sweptUntil);
+
+    // Quita la marca a los créditos con saldo cuyo dueDate ya no ha pasado (vencimiento aplazado o eliminado); devuelve cuántos
+    Mono<Long> clearPostponedOverdue(LocalDateTime now);
+
+    // Fija (true) o quita (false) la marca tras una escritura de importes, solo si el vencimiento sigue siendo dueDate
+    Mono<Void> refreshOverdue(String id, LocalDateTime dueDate, boolean overdue);
+
+    // Totales por día y tipo calculados en Mongo; solo viajan las filas agrupadas
+    Flux<CreditReportSummaryDto> summarizeByDayAndType(LocalDateTime start, LocalDateTime end);
+
+    // Actualización atómica ($set de importes, $inc de versión) en un solo viaje; devuelve el documento ANTERIOR.
+    // Si es CREDIT_CARD, la misma escritura deja el saldo pendiente de sincronizar con el servicio de cuentas (accountSync, ver
+    // claimAccountSync).
+    // Con expectedVersion solo se aplica si el crédito sigue en esa versión; vacío si no existe o la versión no coincide
+    Mono<CreditEntity> findAndUpdateAmounts(String id, Money creditLimit, Money balance, Long expectedVersion, LocalDateTime updatedAt);
+
+    // Elimina en un solo viaje y devuelve el documento eliminado (vacío si no existía)
+    Mono<CreditEntity> findAndRemoveById(String id);
+
+    // Movimientos de saldo en un solo $inc condicional sobre el crédito. minPrefix y maxPrefix son el mínimo y el máximo de las
+    // sumas parciales de los importes en orden: así ningún saldo intermedio baja de 0 ni supera creditLimit, igual que si se
+    // aplicaran uno a uno. Los ids (de credit_postings) quedan en pendingPostingIds en la misma escritura, así que repetirla
+    // no vuelve a sumar; tampoco se aplica un id retomado por otra solicitud. Igual que findAndUpdateAmounts, deja el saldo
+    // de las tarjetas pendiente de sincronizar con el servicio de cuentas. Devuelve el crédito actualizado, o vacío si no se cumplió
+    Mono<CreditEntity> applyPostings(String id, Money netAmount, Money minPrefix, Money maxPrefix, List<String> postingIds,
+                                     LocalDateTime updatedAt);
+
+    // Quita de pendingPostingIds los movimientos que ya constan como APPLIED en credit_postings
+    Mono<Void> releasePostings(String id, Collection<String> postingIds);
+
+    // Impide que un movimiento abandonado se aplique después. false si ya estaba aplicado o el crédito no existe
+    Mono<Boolean> fencePosting(String id, String postingId);
+
+    // Tras resolver el movimiento que lo retomó, saca el id de fencedPostingIds para que la lista no crezca. Sigue sin poder
+    // aplicarse: pasa a fencedBefore, que bloquea ese id y todos los anteriores (ya abandonados por antigüedad)
+    Mono<Void> releaseFencedPosting(String id, String postingId);
+
+    // Saldo, línea y movimientos pendientes, para explicar un movimiento no aplicado (vacío si el crédito no existe)
+    Mono<CreditPostingState> findPostingState(String id);
+
+    // Reserva con un findAndModify el saldo de tarjeta pendiente de sincronizar más antiguo cuyo turno llegó y que nadie tiene
+    // reservado (o cuya reserva caducó): fija accountSync.claimedBy y claimedUntil. Vacío si no queda ninguno
+    Mono<AccountBalanceSync> claimAccountSync(LocalDateTime now, LocalDateTime claimedUntil);
+
+    // Tras un envío correcto: da la sincronización por terminada si la secuencia sigue vigente y la reserva es propia. Si llegó un
+    // saldo más nuevo, libera la reserva para enviarlo; si la reserva caducó y otra réplica la tomó, programa otro envío inmediato
+    // porque el saldo enviado tarde pudo pisar el suyo
+    Mono<Void> acknowledgeAccountSync(AccountBalanceSync sync, LocalDateTime now);
+
+    // Tras un envío fallido: programa otro intento de la misma secuencia y libera la reserva (si sigue siendo propia)
+    Mono<Void> rescheduleAccountSync(AccountBalanceSync sync, LocalDateTime nextAttemptAt);
+
+    // Inserción masiva no ordenada; devuelve los errores por posición en la lista (vacío si todo se insertó)
+    Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<CreditEntity> credits);
+}
@@ -0,0 +1,458 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditReportSummaryDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ICreditRepositoryCustomImpl implements ICreditRepositoryCustom {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "_id";
+    private static final String CUSTOMER_ID = "customerId";
+    private static final String VERSION = "version";
+    private static final String BALANCE = "balance";
+    private static final String DUE_DATE = "dueDate";
+    private static final String OVERDUE = "overdue";
+    private static final String CREDIT_LIMIT = "creditLimit";
+    // Movimientos ya sumados al saldo y aún no marcados APPLIED en credit_postings, y los retomados por otra solicitud.
+    // No se mapean en CreditEntity para no hidratarlos en cada lectura
+    private static final String PENDING_POSTING_IDS = "pendingPostingIds";
+    private static final String FENCED_POSTING_IDS = "fencedPostingIds";
+    // Mayor id retomado ya liberado de fencedPostingIds: los ids son ObjectId (ordenados por fecha de creación), así que todo id
+    // hasta él también quedó abandonado y ya no se puede aplicar
+    private static final String FENCED_BEFORE = "fencedBefore";
+    // Saldo pendiente de enviar al servicio de cuentas: se marca en la misma escritura que cambia los importes, así que no hay
+    // saldo escrito sin su sincronización. Solo los CREDIT_CARD llevan la marca (solo ellos se despachan)
+    private static final String ACCOUNT_SYNC = "accountSync";
+    private static final String CREDIT_CARD = "CREDIT_CARD";
+    private static final String SYNC_SEQUENCE = "accountSync.sequence";
+    private static final String SYNC_NEXT_ATTEMPT_AT = "accountSync.nextAttemptAt";
+    private static final String SYNC_ATTEMPTS = "accountSync.attempts";
+    private static final String SYNC_CLAIMED_BY = "accountSync.claimedBy";
+    private static final String SYNC_CLAIMED_UNTIL = "accountSync.claimedUntil";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<CreditEntity> findPage(CreditCursor after, int limit) {
+        return findPage(new Criteria(), after, limit);
+    }
+
+    @Override
+    public Flux<CreditEntity> findPageByCustomerId(String customerId, CreditCursor after, int limit) {
+        return findPage(Criteria.where(CUSTOMER_ID).is(customerId), after, limit);
+    }
+
+    @Override
+    public Flux<CreditEntity> findPageByCreatedAtBetween(LocalDateTime start, LocalDateTime end, CreditCursor after, int limit) {
+        return findPage(Criteria.where(CREATED_AT).gt(start).lt(end), after, limit);
+    }
+
+    @Override
+    public Mono<Boolean> existsActiveCreditCard(String customerId) {
+        return existsCovered(Criteria.where(CUSTOMER_ID).is(customerId).and("type").is(CREDIT_CARD).and("active").is(true));
+    }
+
+    @Override
+    public Mono<Boolean> existsOverdueDebt(String customerId, LocalDateTime sweptUntil, LocalDateTime now) {
+        // $lt no coincide con dueDate nulo o ausente, así que esos créditos no cuentan como vencidos
+        if (sweptUntil == null) {
+            return existsCovered(Criteria.where(CUSTOMER_ID).is(customerId).and(DUE_DATE).lt(now).and(BALANCE).gt(0));
+        }
+        // Cada rama del $or se resuelve con su índice (customer_overdue_balance_idx / customer_due_date_balance_idx)
+        return existsCovered(new Criteria().orOperator(
+                Criteria.where(CUSTOMER_ID).is(customerId).and(OVERDUE).is(true).and(BALANCE).gt(0),
+                Criteria.where(CUSTOMER_ID).is(customerId).and(DUE_DATE).gte(sweptUntil).lt(now).and(BALANCE).gt(0)));
+    }
+
+    // Proyecta solo customerId (sin _id) para que Mongo responda desde el índice compuesto sin leer el documento
+    private Mono<Boolean> existsCovered(Criteria criteria) {
+        Query query = new Query(criteria).limit(1);
+        query.fields().include(CUSTOMER_ID).exclude(ID);
+        return mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(CreditEntity.class))
+                .hasElement();
+    }
+
+    @Override
+    public Flux<CustomerEligibilityDto> findEligibility(Collection<String> customerIds, LocalDateTime sweptUntil, LocalDateTime now) {
+        // Mismo criterio que las consultas individuales; $type evita que un dueDate nulo cuente como anterior a "now"
+        Document activeCard = new Document("$and", List.of(
+                new Document("$eq", List.of("$type", CREDIT_CARD)),
+                new Document("$eq", List.of("$active", true))));
+        List<Document> pastDue = new ArrayList<>(List.of(
+                new Document("$eq", List.of(new Document("$type", "$" + DUE_DATE), "date")),
+                new Document("$lt", List.of("$" + DUE_DATE, toDate(now)))));
+        Document due;
+        if (sweptUntil == null) {
+            due = new Document("$and", pastDue);
+        } else {
+            pastDue.add(new Document("$gte", List.of("$" + DUE_DATE, toDate(sweptUntil))));
+            due = new Document("$or", List.of(new Document("$eq", List.of("$" + OVERDUE, true)), new Document("$and", pastDue)));
+        }
+        Document overdueDebt = new Document("$and", List.of(due, new Document("$gt", List.of("$" + BALANCE, 0))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(CUSTOMER_ID).in(customerIds)),
+                context -> new Document("$group", new Document(ID, "$" + CUSTOMER_ID)
+                        .append("hasActiveCard", new Document("$max", activeCard))
+                        .append("hasOverdueDebts", new Document("$max", overdueDebt))));
+
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(CreditEntity.class), Document.class)
+                .map(result -> new CustomerEligibilityDto(
+                        result.getString(ID),
+                        Boolean.TRUE.equals(result.getBoolean("hasActiveCard")),
+                        Boolean.TRUE.equals(result.getBoolean("hasOverdueDebts"))));
+    }
+
+    private static Date toDate(LocalDateTime value) {
+        return Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Override
+    public Mono<LocalDateTime> findEarliestDueDate() {
+        Query query = new Query(Criteria.where(DUE_DATE).ne(null)).with(Sort.by(Sort.Direction.ASC, DUE_DATE)).limit(1);
+        query.fields().include(DUE_DATE).exclude(ID);
+        return mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(CreditEntity.class))
+                .mapNotNull(document -> document.getDate(DUE_DATE))
+                .map(date -> LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+    }
+
+    @Override
+    public Mono<Long> markOverdue(LocalDateTime from, LocalDateTime to) {
+        return updateOverdue(Criteria.where(OVERDUE).ne(true).and(DUE_DATE).gte(from).lt(to).and(BALANCE).gt(0),
+                new Update().set(OVERDUE, true));
+    }
+
+    @Override
+    public Mono<Long> markLateOverdue(LocalDateTime sweptUntil) {
+        return updateOverdue(Criteria.where(OVERDUE).ne(true).and(DUE_DATE).lt(sweptUntil).and(BALANCE).gt(0),
+                new Update().set(OVERDUE, true));
+    }
+
+    @Override
+    public Mono<Long> clearPostponedOverdue(LocalDateTime now) {
+        // $not $lt también coincide con dueDate nulo o ausente
+        return updateOverdue(Criteria.where(OVERDUE).is(true).and(DUE_DATE).not().lt(now).and(BALANCE).gt(0),
+                new Update().unset(OVERDUE));
+    }
+
+    // Por nombre de colección y no por entidad: así Spring Data no añade el $inc de la versión (@Version)
+    private Mono<Long> updateOverdue(Criteria criteria, Update update) {
+        return mongoTemplate.updateMulti(new Query(criteria), update, mongoTemplate.getCollectionName(CreditEntity.class))
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Void> refreshOverdue(String id, LocalDateTime dueDate, boolean overdue) {
+        Criteria criteria = Criteria.where(ID).is(id).and(DUE_DATE).is(dueDate);
+        return overdue
+                ? updateCredit(criteria.and(OVERDUE).ne(true), new Update().set(OVERDUE, true)).then()
+                : updateCredit(criteria.and(OVERDUE).is(true), new Update().unset(OVERDUE)).then();
+    }
+
+    @Override
+    public Flux<CreditReportSummaryDto> summarizeByDayAndType(LocalDateTime start, LocalDateTime end) {
+        Document day = new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                .append("date", "$" + CREATED_AT)
+                .append("timezone", ZoneId.systemDefault().getId()));
+        Document utilization = new Document("$cond", List.of(
+                new Document("$gt", List.of("$totalCreditLimit", 0)),
+                new Document("$divide", List.of("$totalBalance", "$totalCreditLimit")),
+                0));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(CREATED_AT).gt(start).lt(end)),
+                context -> new Document("$group", new Document(ID, new Document("day", day).append("type", "$type"))
+                        .append("count", new Document("$sum", 1))
+                        .append("totalBalance", new Document("$sum", "$balance"))
+                        .append("totalCreditLimit", new Document("$sum", "$creditLimit"))),
+                context -> new Document("$addFields", new Document("utilization", utilization)),
+                context -> new Document("$sort", new Document("_id.day", 1).append("_id.type", 1)))
+                // Rangos de varios años: el $group puede superar el límite de memoria de la etapa
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(CreditEntity.class), Document.class)
+                .map(result -> {
+                    Document key = result.get(ID, Document.class);
+                    return CreditReportSummaryDto.builder()
+                            .day(key.getString("day"))
+                            .type(key.getString("type"))
+                            .count(number(result, "count").longValue())
+                            .totalBalance(number(result, "totalBalance").doubleValue())
+                            .totalCreditLimit(number(result, "totalCreditLimit").doubleValue())
+                            .utilization(number(result, "utilization").doubleValue())
+                            .build();
+                });
+    }
+
+    // $sum devuelve Integer, Long o Double según los valores sumados
+    private static Number number(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number number ? number : 0;
+    }
+
+    @Override
+    public Mono<CreditEntity> findAndUpdateAmounts(String id, Money creditLimit, Money balance, Long expectedVersion,
+                                                   LocalDateTime updatedAt) {
+        Criteria criteria = Criteria.where(ID).is(id);
+        if (expectedVersion != null) {
+            // Los documentos creados antes de @Version (o por inserción masiva) no tienen el campo: cuentan como versión 0
+            criteria = criteria.and(VERSION).in(expectedVersion == 0 ? Arrays.asList(0L, null) : List.of(expectedVersion));
+        }
+        Document set = new Document("creditLimit", creditLimit == null ? null : decimal(creditLimit))
+                .append(BALANCE, balance == null ? null : decimal(balance))
+                .append("updatedAt", toDate(updatedAt))
+                .append(VERSION, incrementVersion());
+        return findAndModifyAmounts(new Query(criteria), markAccountSync(set, updatedAt), false);
+    }
+
+    @Override
+    public Mono<CreditEntity> findAndRemoveById(String id) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where(ID).is(id)), CreditEntity.class);
+    }
+
+    @Override
+    public Mono<CreditEntity> applyPostings(String id, Money netAmount, Money minPrefix, Money maxPrefix, List<String> postingIds,
+                                            LocalDateTime updatedAt) {
+        // $not $gte también coincide sin fencedBefore (ningún movimiento retomado todavía)
+        Query query = new Query(Criteria.where(ID).is(id).and(PENDING_POSTING_IDS).nin(postingIds).and(FENCED_POSTING_IDS).nin(postingIds)
+                .and(FENCED_BEFORE).not().gte(Collections.min(postingIds)));
+        // La condición sobre el saldo la evalúa Mongo en la misma operación que el $inc: no hay carrera entre leer y escribir
+        Document balance = new Document("$ifNull", List.of("$" + BALANCE, 0));
+        List<Document> limits = new ArrayList<>();
+        // Decimal128 a mano: la expresión no pasa por el mapeo de la entidad; Mongo la compara igual con saldos double antiguos
+        if (maxPrefix.signum() > 0) {
+            limits.add(new Document("$lte", List.of(new Document("$add", List.of(balance, decimal(maxPrefix))), "$" + CREDIT_LIMIT)));
+        }
+        if (minPrefix.signum() < 0) {
+            limits.add(new Document("$gte", List.of(new Document("$add", List.of(balance, decimal(minPrefix))), 0)));
+        }
+        if (!limits.isEmpty()) {
+            query.addCriteria(Criteria.expr(() -> new Document("$and", limits)));
+        }
+        Document set = new Document(BALANCE, new Document("$add", List.of(balance, decimal(netAmount))))
+                .append(VERSION, incrementVersion())
+                .append("updatedAt", toDate(updatedAt))
+                .append(PENDING_POSTING_IDS, new Document("$concatArrays", List.of(
+                        new Document("$ifNull", List.of("$" + PENDING_POSTING_IDS, List.of())),
+                        new Document("$literal", postingIds))));
+        return findAndModifyAmounts(query, markAccountSync(set, updatedAt), true);
+    }
+
+    // Escrituras de importes como canalización de un solo $set: la marca de sincronización depende del tipo del crédito, que la
+    // escritura no conoce de antemano. Por nombre de colección y con valores ya convertidos (Decimal128, Date), como
+    // updateCredit: la versión la incrementa el propio $set
+    private Mono<CreditEntity> findAndModifyAmounts(Query query, Document set, boolean returnNew) {
+        return mongoTemplate.findAndModify(query, AggregationUpdate.from(List.of(context -> new Document("$set", set))),
+                        FindAndModifyOptions.options().returnNew(returnNew), Document.class,
+                        mongoTemplate.getCollectionName(CreditEntity.class))
+                .map(document -> mongoTemplate.getConverter().read(CreditEntity.class, document));
+    }
+
+    // Igual que $inc: sin campo (documentos anteriores a @Version) cuenta como 0
+    private static Document incrementVersion() {
+        return new Document("$add", List.of(new Document("$ifNull", List.of("$" + VERSION, 0L)), 1L));
+    }
+
+    // Nueva secuencia con envío inmediato; una reserva en curso no se toca: su confirmación verá otra secuencia y la liberará.
+    // Los demás tipos no se despachan: no llevan la marca y se quita la que dejaran versiones anteriores
+    private static Document markAccountSync(Document set, LocalDateTime updatedAt) {
+        Document sync = new Document("$mergeObjects", List.of(
+                new Document("$ifNull", List.of("$" + ACCOUNT_SYNC, new Document())),
+                new Document("sequence", new Document("$add", List.of(new Document("$ifNull", List.of("$" + SYNC_SEQUENCE, 0)), 1)))
+                        .append("nextAttemptAt", toDate(updatedAt))
+                        .append("attempts", 0)));
+        return set.append(ACCOUNT_SYNC, new Document("$cond", List.of(
+                new Document("$eq", List.of("$type", CREDIT_CARD)), sync, "$$REMOVE")));
+    }
+
+    // Vuelve a programar el envío de una tarjeta (confirmación tardía tras perder la reserva)
+    private static Update rearmAccountSync(LocalDateTime now) {
+        return new Update()
+                .inc(SYNC_SEQUENCE, 1)
+                .set(SYNC_NEXT_ATTEMPT_AT, now)
+                .set(SYNC_ATTEMPTS, 0);
+    }
+
+    @Override
+    public Mono<Void> releasePostings(String id, Collection<String> postingIds) {
+        return updateCredit(Criteria.where(ID).is(id), new Update().pullAll(PENDING_POSTING_IDS, postingIds.toArray())).then();
+    }
+
+    @Override
+    public Mono<Boolean> fencePosting(String id, String postingId) {
+        return updateCredit(Criteria.where(ID).is(id).and(PENDING_POSTING_IDS).ne(postingId),
+                new Update().addToSet(FENCED_POSTING_IDS, postingId));
+    }
+
+    @Override
+    public Mono<Void> releaseFencedPosting(String id, String postingId) {
+        return updateCredit(Criteria.where(ID).is(id), new Update().pull(FENCED_POSTING_IDS, postingId).max(FENCED_BEFORE, postingId)).then();
+    }
+
+    @Override
+    public Mono<CreditPostingState> findPostingState(String id) {
+        Query query = new Query(Criteria.where(ID).is(id));
+        query.fields().include(BALANCE, CREDIT_LIMIT, VERSION, PENDING_POSTING_IDS, FENCED_POSTING_IDS, FENCED_BEFORE);
+        return mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(CreditEntity.class))
+                .map(document -> new CreditPostingState(
+                        toMoney(document.get(BALANCE)),
+                        toMoney(document.get(CREDIT_LIMIT)),
+                        document.get(VERSION) instanceof Number version ? version.longValue() : 0L,
+                        new HashSet<>(document.getList(PENDING_POSTING_IDS, String.class, List.of())),
+                        new HashSet<>(document.getList(FENCED_POSTING_IDS, String.class, List.of())),
+                        document.getString(FENCED_BEFORE)));
+    }
+
+    @Override
+    public Mono<AccountBalanceSync> claimAccountSync(LocalDateTime now, LocalDateTime claimedUntil) {
+        // $not $gt también coincide con claimedUntil ausente (nunca reservado o reserva liberada)
+        Query query = new Query(Criteria.where("type").is(CREDIT_CARD)
+                .and(SYNC_NEXT_ATTEMPT_AT).lte(now)
+                .and(SYNC_CLAIMED_UNTIL).not().gt(now))
+                .with(Sort.by(Sort.Order.asc(SYNC_NEXT_ATTEMPT_AT)));
+        query.fields().include(BALANCE, ACCOUNT_SYNC);
+        Update update = new Update()
+                .set(SYNC_CLAIMED_BY, UUID.randomUUID().toString())
+                .set(SYNC_CLAIMED_UNTIL, claimedUntil);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Document.class,
+                        mongoTemplate.getCollectionName(CreditEntity.class))
+                .map(document -> {
+                    Document sync = document.get(ACCOUNT_SYNC, Document.class);
+                    return new AccountBalanceSync(
+                            document.get(ID).toString(),
+                            toMoney(document.get(BALANCE)),
+                            sync.get("sequence") instanceof Number sequence ? sequence.longValue() : 0L,
+                            sync.get("attempts") instanceof Number attempts ? attempts.intValue() : 0,
+                            sync.getString("claimedBy"));
+                });
+    }
+
+    @Override
+    public Mono<Void> acknowledgeAccountSync(AccountBalanceSync sync, LocalDateTime now) {
+        return updateCredit(sameAccountSync(sync), new Update().unset(ACCOUNT_SYNC))
+                .flatMap(done -> done ? Mono.just(true) : releaseAccountSync(sync))
+                .flatMap(done -> done ? Mono.<Boolean>empty() : updateCredit(
+                        Criteria.where(ID).is(sync.accountId()).and("type").is(CREDIT_CARD), rearmAccountSync(now)))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> rescheduleAccountSync(AccountBalanceSync sync, LocalDateTime nextAttemptAt) {
+        Update update = new Update()
+                .set(SYNC_NEXT_ATTEMPT_AT, nextAttemptAt)
+                .inc(SYNC_ATTEMPTS, 1)
+                .unset(SYNC_CLAIMED_BY)
+                .unset(SYNC_CLAIMED_UNTIL);
+        return updateCredit(sameAccountSync(sync), update)
+                .flatMap(done -> done ? Mono.just(true) : releaseAccountSync(sync))
+                .then();
+    }
+
+    // La secuencia enviada sigue vigente y la reserva sigue siendo de quien envió
+    private static Criteria sameAccountSync(AccountBalanceSync sync) {
+        return Criteria.where(ID).is(sync.accountId()).and(SYNC_SEQUENCE).is(sync.sequence()).and(SYNC_CLAIMED_BY).is(sync.claimedBy());
+    }
+
+    // Libera la reserva propia (llegó una secuencia más nueva, que ya está programada); false si la reserva ya no es propia
+    private Mono<Boolean> releaseAccountSync(AccountBalanceSync sync) {
+        return updateCredit(Criteria.where(ID).is(sync.accountId()).and(SYNC_CLAIMED_BY).is(sync.claimedBy()),
+                new Update().unset(SYNC_CLAIMED_BY).unset(SYNC_CLAIMED_UNTIL));
+    }
+
+    // Por nombre de colección, como markOverdue: las marcas internas (movimientos pendientes, sincronización con cuentas) no deben
+    // aumentar la versión del crédito; con la entidad, Spring Data añadiría el $inc de @Version a cada updateFirst
+    private Mono<Boolean> updateCredit(Criteria criteria, Update update) {
+        return mongoTemplate.updateFirst(new Query(criteria), update, mongoTemplate.getCollectionName(CreditEntity.class))
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    private static Money toMoney(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return Money.of(decimal.bigDecimalValue());
+        }
+        return value instanceof Number number ? Money.valueOf(number) : null;
+    }
+
+    private static Decimal128 decimal(Money amount) {
+        return new Decimal128(amount.toBigDecimal());
+    }
+
+    @Override
+    public Mono<Map<Integer, BulkWriteError>> insertAllUnordered(List<CreditEntity> credits) {
+        if (credits.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreditEntity.class)
+                .insert(credits)
+                .execute()
+                .<Map<Integer, BulkWriteError>>thenReturn(Map.of())
+                .onErrorResume(error -> bulkWriteException(error) != null,
+                        error -> Mono.just(bulkWriteException(error).getWriteErrors().stream()
+                                .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()))));
+    }
+
+    // El traductor de excepciones de Spring puede envolver el error original (p. ej. en DuplicateKeyException)
+    static MongoBulkWriteException bulkWriteException(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+        }
+        return null;
+    }
+
+    private Flux<CreditEntity> findPage(Criteria filter, CreditCursor after, int limit) {
+        Query query = new Query(after == null ? filter : new Criteria().andOperator(filter, after(after)))
+                .with(Sort.by(Sort.Order.asc(CREATED_AT), Sort.Order.asc(ID)))
+                .limit(limit);
+        return mongoTemplate.find(query, CreditEntity.class);
+    }
+
+    // Condición de búsqueda por clave: (createdAt > c) o (createdAt = c y _id > id), sin skip
+    private Criteria after(CreditCursor cursor) {
+        if (cursor.createdAt() == null) {
+            // Los documentos sin fecha se ordenan primero; tras ellos vienen todos los que sí la tienen
+            return new Criteria().orOperator(
+                    Criteria.where(CREATED_AT).ne(null),
+                    new Criteria().andOperator(Criteria.where(CREATED_AT).is(null), Criteria.where(ID).gt(cursor.id())));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(CREATED_AT).gt(cursor.createdAt()),
+                new Criteria().andOperator(Criteria.where(CREATED_AT).is(cursor.createdAt()), Criteria.where(ID).gt(cursor.id())));
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditRollupEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface ICreditRollupRepository extends
+        ReactiveMongoRepository<CreditRollupEntity, String>, ICreditRollupRepositoryCustom {
+
+    // Límite inferior inclusivo y superior exclusivo
+    Flux<CreditRollupEntity> findByGranularityAndBucketGreaterThanEqualAndBucketLessThanOrderByBucketAscTypeAsc(
+            String granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,16 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditRollupEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ICreditRollupRepositoryCustom {
+
+    // Suma los valores de cada elemento (count, totalBalance, totalCreditLimit) a su intervalo con $inc, creándolo si no existe
+    Mono<Void> incrementAll(List<CreditRollupEntity> deltas);
+
+    // Recalcula todos los intervalos (DAY y HOUR) desde la colección de créditos en una colección temporal ($group + $out en el
+    // servidor) y la pone en lugar de credit_rollups con renameCollection: las lecturas nunca ven los totales vacíos ni a medias
+    Mono<Void> rebuild();
+}
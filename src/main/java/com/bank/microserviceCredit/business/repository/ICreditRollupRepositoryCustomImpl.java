@@ -0,0 +1,115 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.Model.entity.CreditRollupEntity;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ICreditRollupRepositoryCustomImpl implements ICreditRollupRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> incrementAll(List<CreditRollupEntity> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        // Un único viaje a la base de datos para todos los intervalos afectados
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreditRollupEntity.class);
+        for (CreditRollupEntity delta : deltas) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(delta.getId())), new Update()
+                    .setOnInsert("granularity", delta.getGranularity())
+                    .setOnInsert("bucket", delta.getBucket())
+                    .setOnInsert("type", delta.getType())
+                    .inc("count", delta.getCount())
+                    .inc("totalBalance", delta.getTotalBalance())
+                    .inc("totalCreditLimit", delta.getTotalCreditLimit()));
+        }
+        return bulk.execute().then();
+    }
+
+    @Override
+    public Mono<Void> rebuild() {
+        String target = mongoTemplate.getCollectionName(CreditRollupEntity.class);
+        String staging = target + "_rebuild_" + UUID.randomUUID().toString().replace("-", "");
+        String credits = mongoTemplate.getCollectionName(CreditEntity.class);
+        // $out sobre una colección existente conserva sus índices: se crean antes y la colección ya se estrena indexada
+        Document intoStaging = new Document("$merge", new Document("into", staging)
+                .append("on", "_id")
+                .append("whenMatched", "fail")
+                .append("whenNotMatched", "insert"));
+        return mongoTemplate.createCollection(staging)
+                .thenMany(ensureIndexes(staging))
+                .thenMany(mongoTemplate.aggregate(rollups(CreditRollupEntity.DAY, new Document("$out", staging)), credits, Document.class))
+                .thenMany(mongoTemplate.aggregate(rollups(CreditRollupEntity.HOUR, intoStaging), credits, Document.class))
+                .then(Mono.defer(() -> replace(target, staging)))
+                .onErrorResume(error -> mongoTemplate.dropCollection(staging).then(Mono.error(error)));
+    }
+
+    private Aggregation rollups(String granularity, Document output) {
+        String timezone = ZoneId.systemDefault().getId();
+        String unit = CreditRollupEntity.DAY.equals(granularity) ? "day" : "hour";
+        Document bucket = new Document("$dateTrunc", new Document("date", "$createdAt")
+                .append("unit", unit)
+                .append("timezone", timezone));
+        Document id = new Document("$concat", List.of(
+                granularity + "|",
+                "$_id.type",
+                "|",
+                new Document("$dateToString", new Document("date", "$_id.bucket")
+                        .append("format", "%Y-%m-%dT%H:%M")
+                        .append("timezone", timezone))));
+
+        return Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdAt").ne(null)),
+                context -> new Document("$group", new Document("_id", new Document("bucket", bucket)
+                        .append("type", new Document("$ifNull", List.of("$type", CreditRollupEntity.UNKNOWN_TYPE))))
+                        .append("count", new Document("$sum", 1))
+                        .append("totalBalance", new Document("$sum", new Document("$ifNull", List.of("$balance", 0.0))))
+                        .append("totalCreditLimit", new Document("$sum", new Document("$ifNull", List.of("$creditLimit", 0.0))))),
+                context -> new Document("$project", new Document("_id", id)
+                        .append("granularity", new Document("$literal", granularity))
+                        .append("bucket", "$_id.bucket")
+                        .append("type", "$_id.type")
+                        .append("count", 1)
+                        .append("totalBalance", 1)
+                        .append("totalCreditLimit", 1)),
+                context -> output)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+    }
+
+    private Flux<String> ensureIndexes(String collection) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        ReactiveIndexOperations indexOperations = mongoTemplate.indexOps(collection);
+        return Flux.fromIterable(resolver.resolveIndexFor(CreditRollupEntity.class)).concatMap(indexOperations::ensureIndex);
+    }
+
+    // renameCollection con dropTarget sustituye la colección en una sola operación
+    private Mono<Void> replace(String target, String staging) {
+        return mongoTemplate.getCollection(staging)
+                .flatMap(collection -> Mono.from(collection.renameCollection(
+                        new MongoNamespace(collection.getNamespace().getDatabaseName(), target),
+                        new RenameCollectionOptions().dropTarget(true))))
+                .then();
+    }
+}
@@ -0,0 +1,8 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.SweepCheckpointEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ISweepCheckpointRepository extends
+        ReactiveMongoRepository<SweepCheckpointEntity, String>, ISweepCheckpointRepositoryCustom {
+}
@@ -0,0 +1,11 @@
+package com.bank.microserviceCredit.business.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface ISweepCheckpointRepositoryCustom {
+
+    // Upsert con $max: el punto de control nunca retrocede aunque otra réplica haya avanzado más
+    Mono<Void> advance(String name, LocalDateTime sweptUntil);
+}
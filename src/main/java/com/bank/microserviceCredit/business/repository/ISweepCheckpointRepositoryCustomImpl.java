@@ -0,0 +1,25 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.entity.SweepCheckpointEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class ISweepCheckpointRepositoryCustomImpl implements ISweepCheckpointRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> advance(String name, LocalDateTime sweptUntil) {
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(name)), new Update()
+                        .max("sweptUntil", sweptUntil)
+                        .set("updatedAt", LocalDateTime.now()), SweepCheckpointEntity.class)
+                .then();
+    }
+}
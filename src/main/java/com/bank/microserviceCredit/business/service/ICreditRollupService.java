@@ -0,0 +1,21 @@
+package com.bank.microserviceCredit.business.service;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditRollupDto;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ICreditRollupService {
+
+    Mono<Void> recordCreated(List<CreditEntity> credits);
+
+    Mono<Void> recordUpdated(CreditEntity credit, double balanceDelta, double creditLimitDelta);
+
+    Mono<Void> recordDeleted(CreditEntity credit);
+
+    Flux<CreditRollupDto> findRollups(String startDate, String endDate, String granularity);
+
+    Mono<Void> rebuild();
+}
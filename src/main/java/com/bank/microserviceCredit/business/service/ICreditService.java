@@ -1,8 +1,17 @@
 package com.bank.microserviceCredit.business.service;
 
 
+import com.bank.microserviceCredit.Model.api.credit.BulkCreditResultDto;
 import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CreditReportSummaryDto;
 import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerPortfolioDto;
+import com.bank.microserviceCredit.Model.api.credit.PostingRequest;
+import com.bank.microserviceCredit.Model.api.credit.PostingResultDto;
+import com.bank.microserviceCredit.Model.api.shared.PageDto;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -12,20 +21,46 @@ public interface ICreditService {
 
     Mono<CreditDto> createCredit(CreditRequest request);
 
+    Flux<BulkCreditResultDto> createCredits(Flux<CreditRequest> requests);
+
     Mono<CreditDto> findById(String id);
 
     Flux<CreditDto> findAll();
 
+    Mono<PageDto<CreditDto>> findPage(String cursor, Integer size);
+
     Mono<CreditDto> updateCredit(String id, CreditRequest request);
 
-    Mono<Void> deleteById(String id);
+    // Cargo o pago atómico sobre el saldo; reenviar la misma idempotencyKey no lo aplica dos veces
+    Mono<PostingResultDto> post(String creditId, PostingRequest request);
+
+    // Modo masivo: los movimientos de un mismo crédito dentro del lote se aplican en una sola escritura
+    Flux<PostingResultDto> postBatch(Flux<PostingRequest> requests);
+
+    // true si se eliminó el crédito, false si no existía
+    Mono<Boolean> deleteById(String id);
 
     Mono<Boolean> hasActiveCreditCard(String customerId);
 
     Mono<Boolean> hasOverdueDebts(String customerId);
 
+    Flux<CustomerEligibilityDto> checkEligibility(List<String> customerIds);
+
+    // Resumen de los créditos del cliente: cantidad por tipo, totales, tarjeta activa y vencimiento más próximo
+    Mono<CustomerPortfolioDto> getPortfolio(String customerId);
+
     Mono<List<CreditDto>> generateReport(String startDate, String endDate);
 
+    Flux<CreditDto> streamReport(String startDate, String endDate);
+
+    Flux<CreditReportSummaryDto> summarizeReport(String startDate, String endDate);
+
+    Flux<DataBuffer> exportReportCsv(String startDate, String endDate, DataBufferFactory bufferFactory);
+
+    Mono<PageDto<CreditDto>> generateReportPage(String startDate, String endDate, String cursor, Integer size);
+
     Flux<CreditDto> findByCustomerId(String customerId);
 
+    Mono<PageDto<CreditDto>> findPageByCustomerId(String customerId, String cursor, Integer size);
+
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditRollupDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.Model.entity.CreditRollupEntity;
+import com.bank.microserviceCredit.business.repository.ICreditRollupRepository;
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantiene los totales por intervalo de la colección credit_rollups.
+ * Las actualizaciones no forman parte de la escritura del crédito: si fallan se registran en el log y no
+ * interrumpen la operación; la reconstrucción (endpoint de actuator creditrollups) corrige cualquier desviación.
+ * La reconstrucción es una foto de los créditos al leerlos: los cambios que lleguen mientras se calcula pueden quedar fuera,
+ * así que conviene lanzarla en momentos de baja carga.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CreditRollupServiceImpl implements ICreditRollupService {
+
+    private final ICreditRollupRepository rollupRepository;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @Override
+    public Mono<Void> recordCreated(List<CreditEntity> credits) {
+        Map<String, CreditRollupEntity> deltas = new LinkedHashMap<>();
+        for (CreditEntity credit : credits) {
+            addDeltas(deltas, credit, 1, Money.toDouble(credit.getBalance()), Money.toDouble(credit.getCreditLimit()));
+        }
+        return apply(deltas);
+    }
+
+    @Override
+    public Mono<Void> recordUpdated(CreditEntity credit, double balanceDelta, double creditLimitDelta) {
+        if (balanceDelta == 0 && creditLimitDelta == 0) {
+            return Mono.empty();
+        }
+        Map<String, CreditRollupEntity> deltas = new LinkedHashMap<>();
+        addDeltas(deltas, credit, 0, balanceDelta, creditLimitDelta);
+        return apply(deltas);
+    }
+
+    @Override
+    public Mono<Void> recordDeleted(CreditEntity credit) {
+        Map<String, CreditRollupEntity> deltas = new LinkedHashMap<>();
+        addDeltas(deltas, credit, -1, -Money.toDouble(credit.getBalance()), -Money.toDouble(credit.getCreditLimit()));
+        return apply(deltas);
+    }
+
+    @Override
+    public Flux<CreditRollupDto> findRollups(String startDate, String endDate, String granularity) {
+        return Flux.defer(() -> {
+            String resolvedGranularity = granularity == null ? CreditRollupEntity.DAY : granularity.toUpperCase();
+            if (!CreditRollupEntity.DAY.equals(resolvedGranularity) && !CreditRollupEntity.HOUR.equals(resolvedGranularity)) {
+                return Flux.error(new IllegalArgumentException("Granularidad no válida: " + granularity));
+            }
+            // Se incluye el intervalo que contiene a startDate; el límite superior es exclusivo
+            LocalDateTime from = truncate(LocalDateTime.parse(startDate), resolvedGranularity);
+            LocalDateTime to = LocalDateTime.parse(endDate);
+            return rollupRepository.findByGranularityAndBucketGreaterThanEqualAndBucketLessThanOrderByBucketAscTypeAsc(
+                    resolvedGranularity, from, to);
+        }).map(rollup -> CreditRollupDto.builder()
+                .granularity(rollup.getGranularity())
+                .bucket(rollup.getBucket())
+                .type(rollup.getType())
+                .count(rollup.getCount())
+                .totalBalance(rollup.getTotalBalance())
+                .totalCreditLimit(rollup.getTotalCreditLimit())
+                .utilization(rollup.getTotalCreditLimit() > 0 ? rollup.getTotalBalance() / rollup.getTotalCreditLimit() : 0)
+                .build());
+    }
+
+    @Override
+    public Mono<Void> rebuild() {
+        // Una reconstrucción por instancia: cada una recorre todos los créditos
+        return Mono.defer(() -> {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return Mono.error(new IllegalStateException("Ya hay una reconstrucción de totales en curso"));
+            }
+            return rollupRepository.rebuild()
+                    .doOnSuccess(ignored -> log.info("Totales por intervalo reconstruidos"))
+                    .doFinally(signal -> rebuilding.set(false));
+        });
+    }
+
+    private Mono<Void> apply(Map<String, CreditRollupEntity> deltas) {
+        return rollupRepository.incrementAll(new ArrayList<>(deltas.values()))
+                .onErrorResume(error -> {
+                    log.warn("No se pudieron actualizar los totales por intervalo: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Cada crédito aporta a su intervalo diario y a su intervalo horario; los deltas del mismo intervalo se acumulan
+    private static void addDeltas(Map<String, CreditRollupEntity> deltas, CreditEntity credit,
+                                  long count, double balance, double creditLimit) {
+        if (credit.getCreatedAt() == null) {
+            return;
+        }
+        String type = credit.getType() != null ? credit.getType() : CreditRollupEntity.UNKNOWN_TYPE;
+        for (String granularity : List.of(CreditRollupEntity.DAY, CreditRollupEntity.HOUR)) {
+            LocalDateTime bucket = truncate(credit.getCreatedAt(), granularity);
+            String id = CreditRollupEntity.idOf(granularity, type, bucket);
+            CreditRollupEntity delta = deltas.computeIfAbsent(id, key -> CreditRollupEntity.builder()
+                    .id(key)
+                    .granularity(granularity)
+                    .bucket(bucket)
+                    .type(type)
+                    .build());
+            delta.setCount(delta.getCount() + count);
+            delta.setTotalBalance(delta.getTotalBalance() + balance);
+            delta.setTotalCreditLimit(delta.getTotalCreditLimit() + creditLimit);
+        }
+    }
+
+    private static LocalDateTime truncate(LocalDateTime dateTime, String granularity) {
+        return dateTime.truncatedTo(CreditRollupEntity.DAY.equals(granularity) ? ChronoUnit.DAYS : ChronoUnit.HOURS);
+    }
+}
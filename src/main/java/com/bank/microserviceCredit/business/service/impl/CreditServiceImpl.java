@@ -1,21 +1,66 @@
 package com.bank.microserviceCredit.business.service.impl;
-import com.bank.microserviceCredit.Model.api.credit.AccountBalanceUpdateRequest;
+import com.bank.microserviceCredit.Model.api.credit.BulkCreditResultDto;
 import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CreditReportSummaryDto;
 import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerPortfolioDto;
+import com.bank.microserviceCredit.Model.api.credit.PostingRequest;
+import com.bank.microserviceCredit.Model.api.credit.PostingResultDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.api.shared.PageDto;
 import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.Model.entity.CreditPostingEntity;
+import com.bank.microserviceCredit.business.cache.CreditCache;
+import com.bank.microserviceCredit.business.cache.CustomerVerificationCache;
+import com.bank.microserviceCredit.business.overdue.OverdueDebtSweeper;
+import com.bank.microserviceCredit.business.portfolio.CreditFacts;
+import com.bank.microserviceCredit.business.portfolio.CustomerPortfolio;
+import com.bank.microserviceCredit.business.portfolio.CustomerPortfolioReadModel;
+import com.bank.microserviceCredit.business.report.CreditCsvWriter;
+import com.bank.microserviceCredit.business.repository.CreditCursor;
+import com.bank.microserviceCredit.business.repository.CreditPostingState;
+import com.bank.microserviceCredit.business.repository.ICreditPostingRepository;
 import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
 import com.bank.microserviceCredit.business.service.ICreditService;
+import com.bank.microserviceCredit.configuration.BulkProperties;
+import com.bank.microserviceCredit.configuration.CreditUpdateProperties;
+import com.bank.microserviceCredit.configuration.EligibilityProperties;
+import com.bank.microserviceCredit.configuration.PaginationProperties;
+import com.bank.microserviceCredit.configuration.PostingProperties;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.util.MongoDbErrorCodes;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import reactor.util.retry.Retry;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 @Slf4j
 @Service
@@ -24,9 +69,31 @@ public class CreditServiceImpl implements ICreditService {
 
     private final ICreditRepository creditRepository;
     private final WebClient customerWebClient;
-    private final WebClient accountWebClient;
+    private final PaginationProperties paginationProperties;
+    private final CustomerVerificationCache customerVerificationCache;
+    private final BulkProperties bulkProperties;
+    private final EligibilityProperties eligibilityProperties;
+    private final ICreditRollupService rollupService;
+    private final CreditUpdateProperties updateProperties;
+    private final CreditCache creditCache;
+    private final ICreditPostingRepository postingRepository;
+    private final PostingProperties postingProperties;
+    private final OverdueDebtSweeper overdueDebtSweeper;
+    private final CustomerPortfolioReadModel portfolioReadModel;
 
-    private CreditEntity convertToEntity(CreditRequest request) {
+    private static final String PERSONAL_CREDIT_EXISTS = "Cliente ya tiene un crédito personal";
+    private static final String CUSTOMER_SERVICE_UNAVAILABLE = "Servicio de clientes no disponible";
+    private static final String CHARGE = "CHARGE";
+    private static final String PAYMENT = "PAYMENT";
+    private static final String APPLIED = "APPLIED";
+    private static final String DUPLICATE = "DUPLICATE";
+    private static final String REJECTED = "REJECTED";
+    private static final String NOT_FOUND = "NOT_FOUND";
+    private static final String ERROR = "ERROR";
+    private static final String RETRY_MESSAGE = "No se pudo registrar el movimiento; puede reintentarse con la misma clave";
+
+    // Visibilidad de paquete para los benchmarks JMH de mapeo (src/jmh/java)
+    CreditEntity convertToEntity(CreditRequest request) {
         return CreditEntity.builder()
                 .customerId(request.getCustomerId())
                 .type(request.getType())
@@ -38,7 +105,7 @@ public class CreditServiceImpl implements ICreditService {
                 .build();
     }
 
-    private CreditDto convertToDto(CreditEntity entity) {
+    CreditDto convertToDto(CreditEntity entity) {
         return CreditDto.builder()
                 .id(entity.getId())
                 .customerId(entity.getCustomerId())
@@ -49,24 +116,48 @@ public class CreditServiceImpl implements ICreditService {
                 .dueDate(entity.getDueDate())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(valueOf(entity.getVersion())) // Los créditos sin versión se exponen como versión 0
                 .build();
     }
 
+    /**
+     * Obtiene una página pidiendo un elemento extra para saber si existe una página siguiente.
+     *
+     * @param cursor Token de continuación recibido del cliente (nulo para la primera página).
+     * @param size   Tamaño solicitado; se limita al máximo configurado.
+     * @param query  Consulta paginada del repositorio (cursor, límite).
+     * @return Página con los DTOs y el token de la siguiente página si la hay.
+     */
+    private Mono<PageDto<CreditDto>> fetchPage(String cursor, Integer size,
+                                               BiFunction<CreditCursor, Integer, Flux<CreditEntity>> query) {
+        int pageSize = paginationProperties.resolve(size);
+        // defer: un cursor inválido llega como señal de error y no como excepción al ensamblar
+        return Mono.defer(() -> query.apply(CreditCursor.decode(cursor), pageSize + 1).collectList())
+                .map(entities -> {
+                    boolean hasNext = entities.size() > pageSize;
+                    List<CreditEntity> page = hasNext ? entities.subList(0, pageSize) : entities;
+                    return PageDto.<CreditDto>builder()
+                            .items(page.stream().map(this::convertToDto).toList())
+                            .nextCursor(hasNext ? CreditCursor.of(page.get(pageSize - 1)).encode() : null)
+                            .size(pageSize)
+                            .build();
+                });
+    }
+
     private Mono<Boolean> verifyCustomerExists(String customerId) {
+        return customerVerificationCache.get(customerId, this::fetchCustomerExists);
+    }
+
+    private Mono<Boolean> fetchCustomerExists(String customerId) {
         return customerWebClient.get()
                 .uri("/{id}", customerId)
                 .retrieve()
                 .bodyToMono(Object.class) // Usa un DTO apropiado si el CustomerService tiene una estructura de respuesta específica
                 .map(response -> true)
-                .onErrorResume(error -> Mono.just(false));
-    }
-
-    private Mono<Void> updateCreditCardBalance(String accountId, Double newBalance) {
-        return accountWebClient.put()
-                .uri("/accounts/{id}", accountId)
-                .bodyValue(new AccountBalanceUpdateRequest(newBalance))
-                .retrieve()
-                .bodyToMono(Void.class);
+                // Solo un 404 significa "cliente no válido"; timeouts, circuito abierto o 5xx son indisponibilidad
+                .onErrorResume(WebClientResponseException.NotFound.class, error -> Mono.just(false))
+                .onErrorMap(error -> !(error instanceof ResponseStatusException),
+                        error -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, CUSTOMER_SERVICE_UNAVAILABLE, error));
     }
 
     @Override
@@ -76,108 +167,613 @@ public class CreditServiceImpl implements ICreditService {
                     if (!customerExists) {
                         return Mono.error(new IllegalArgumentException("Cliente no válido"));
                     }
-                    if ("PERSONAL".equals(request.getType())) {
-                        return creditRepository.existsByCustomerIdAndType(request.getCustomerId(), "PERSONAL")
-                                .flatMap(exists -> {
-                                    if (exists) {
-                                        return Mono.error(new IllegalArgumentException("Cliente ya tiene un crédito personal"));
-                                    }
-                                    CreditEntity creditEntity = convertToEntity(request);
-                                    return creditRepository.save(creditEntity).map(this::convertToDto);
-                                });
-                    } else {
-                        CreditEntity creditEntity = convertToEntity(request);
-                        return creditRepository.save(creditEntity).map(this::convertToDto);
+                    // La unicidad del crédito PERSONAL la garantiza el índice único parcial de la colección
+                    CreditEntity creditEntity = convertToEntity(request);
+                    return creditRepository.save(creditEntity)
+                            .flatMap(saved -> rollupService.recordCreated(List.of(saved)).thenReturn(saved))
+                            .map(this::convertToDto)
+                            .flatMap(created -> creditCache.written(created).thenReturn(created));
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> new IllegalArgumentException(PERSONAL_CREDIT_EXISTS));
+    }
+
+    @Override
+    public Flux<BulkCreditResultDto> createCredits(Flux<CreditRequest> requests) {
+        return requests.index()
+                .buffer(bulkProperties.getBatchSize())
+                .concatMap(this::createBatch);
+    }
+
+    private Flux<BulkCreditResultDto> createBatch(List<Tuple2<Long, CreditRequest>> batch) {
+        Set<String> customerIds = new HashSet<>();
+        batch.forEach(item -> customerIds.add(item.getT2().getCustomerId()));
+
+        // Una verificación por cliente distinto del lote (y servida desde caché si ya se conoce);
+        // Optional vacío = no se pudo verificar porque el servicio de clientes no está disponible
+        Mono<Map<String, Optional<Boolean>>> verifiedCustomers = Flux.fromIterable(customerIds)
+                .flatMap(customerId -> verifyCustomerExists(customerId)
+                                .map(Optional::of)
+                                .onErrorReturn(Optional.empty())
+                                .map(exists -> Map.entry(customerId, exists)),
+                        bulkProperties.getVerificationConcurrency())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        return verifiedCustomers.flatMapMany(verified -> insertBatch(batch, verified));
+    }
+
+    private Flux<BulkCreditResultDto> insertBatch(List<Tuple2<Long, CreditRequest>> batch, Map<String, Optional<Boolean>> verified) {
+        BulkCreditResultDto[] results = new BulkCreditResultDto[batch.size()];
+        List<CreditEntity> toInsert = new ArrayList<>();
+        List<Integer> insertPositions = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            long index = batch.get(i).getT1();
+            CreditRequest request = batch.get(i).getT2();
+            Optional<Boolean> customerExists = verified.get(request.getCustomerId());
+            if (customerExists.isEmpty()) {
+                results[i] = bulkError(index, CUSTOMER_SERVICE_UNAVAILABLE);
+            } else if (!customerExists.get()) {
+                results[i] = bulkError(index, "Cliente no válido");
+            } else {
+                CreditEntity entity = convertToEntity(request);
+                entity.setId(new ObjectId().toHexString()); // La inserción masiva no devuelve los IDs generados
+                toInsert.add(entity);
+                insertPositions.add(i);
+            }
+        }
+
+        return creditRepository.insertAllUnordered(toInsert)
+                .flatMapMany(writeErrors -> {
+                    List<CreditEntity> inserted = new ArrayList<>(toInsert.size());
+                    for (int j = 0; j < toInsert.size(); j++) {
+                        int position = insertPositions.get(j);
+                        long index = batch.get(position).getT1();
+                        BulkWriteError writeError = writeErrors.get(j);
+                        if (writeError == null) {
+                            inserted.add(toInsert.get(j));
+                            results[position] = BulkCreditResultDto.builder().index(index).status("SUCCESS").credit(convertToDto(toInsert.get(j))).build();
+                        } else if (MongoDbErrorCodes.isDuplicateKeyCode(writeError.getCode())) {
+                            results[position] = bulkError(index, PERSONAL_CREDIT_EXISTS);
+                        } else {
+                            results[position] = bulkError(index, writeError.getMessage());
+                        }
                     }
+                    // Un solo $inc por intervalo para todo el lote y una invalidación por cliente afectado
+                    Set<String> changedCustomers = new HashSet<>();
+                    inserted.forEach(credit -> changedCustomers.add(credit.getCustomerId()));
+                    return rollupService.recordCreated(inserted)
+                            .then(creditCache.customersChanged(changedCustomers))
+                            .thenMany(Flux.fromArray(results));
                 });
     }
 
+    private static BulkCreditResultDto bulkError(long index, String message) {
+        return BulkCreditResultDto.builder().index(index).status("ERROR").message(message).build();
+    }
+
     @Override
     public Mono<CreditDto> findById(String id) {
-        return creditRepository.findById(id).map(this::convertToDto);
+        return creditCache.getById(id, key -> creditRepository.findById(key).map(this::convertToDto));
     }
 
     public Flux<CreditDto> findAll() {
         return creditRepository.findAll()
                 .map(this::convertToDto)
-                .doOnError(error -> log.error("Error al obtener créditos: {}", error.getMessage()))
-                .onErrorResume(error -> Flux.empty()); // Devuelve un flujo vacío si ocurre un error
+                // El error se propaga: un flujo cortado a medias no debe parecer una exportación completa
+                .doOnError(error -> log.error("Error al obtener créditos: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<PageDto<CreditDto>> findPage(String cursor, Integer size) {
+        return fetchPage(cursor, size, creditRepository::findPage);
     }
 
     @Override
     public Mono<CreditDto> updateCredit(String id, CreditRequest request) {
-        return creditRepository.findById(id)  // Step 1: Find the existing credit by ID
-                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Crédito no encontrado con ID: " + id)))  // Step 2: Handle "not found" scenario
-                .flatMap(existingCredit -> {  // Step 3: If credit found, proceed with updates
-                    if (request.getBalance() < 0) {  // Step 4: Validate the input (balance can't be negative)
-                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "El saldo no puede ser negativo."));  // Step 5: Handle validation error
+        // Step 1: Validate the input before touching the database (balance can't be negative)
+        if (request.getBalance() != null && request.getBalance().signum() < 0) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "El saldo no puede ser negativo."));
+        }
+        LocalDateTime updatedAt = LocalDateTime.now();
+        // Step 2: Atomic $set of the amounts in a single round trip; the previous document comes back for the rollups
+        Mono<CreditEntity> update = Mono.defer(() -> creditRepository.findAndUpdateAmounts(
+                id, request.getCreditLimit(), request.getBalance(), request.getVersion(), updatedAt));
+        if (request.getVersion() != null) {
+            // Solo con versión es seguro repetir: si el primer intento se aplicó y se perdió la respuesta, la versión ya no
+            // coincide y el reintento acaba en conflicto en lugar de sumar otra versión y dejar a cero los deltas del resumen
+            update = retryTransient(update);
+        }
+        return update
+                // Step 3: Nothing matched: the credit does not exist or its version changed in the meantime
+                .switchIfEmpty(Mono.defer(() -> updateMiss(id, request.getVersion())))
+                .flatMap(previous -> {
+                    // Step 4: Rebuild the updated credit from the previous document and compute the deltas
+                    double balanceDelta = delta(request.getBalance(), previous.getBalance());
+                    double creditLimitDelta = delta(request.getCreditLimit(), previous.getCreditLimit());
+                    CreditEntity updated = previous.toBuilder()
+                            .creditLimit(request.getCreditLimit())
+                            .balance(request.getBalance())
+                            .updatedAt(updatedAt)
+                            .version(valueOf(previous.getVersion()) + 1)
+                            .build();
+                    // Step 5: Rollups and cache (the CREDIT_CARD balance sync was marked by the same findAndModify)
+                    return afterWrite(updated, balanceDelta, creditLimitDelta);
+                });
+    }
+
+    // Efectos de toda escritura de importes: totales por intervalo, marca overdue y caché. El saldo pendiente de enviar a cuentas
+    // (CREDIT_CARD) lo deja la propia escritura en el crédito, no un paso posterior que se pueda perder
+    private Mono<CreditDto> afterWrite(CreditEntity updated, double balanceDelta, double creditLimitDelta) {
+        CreditDto dto = convertToDto(updated);
+        return rollupService.recordUpdated(updated, balanceDelta, creditLimitDelta)
+                .then(refreshOverdue(updated))
+                .then(creditCache.written(dto))
+                .thenReturn(dto);
+    }
+
+    // La marca overdue sigue al saldo: se quita al saldar la deuda y vuelve si un cargo deja saldo en un crédito ya vencido.
+    // Si esta escritura se pierde, el barrido la repara; mientras tanto las consultas exigen saldo, así que no hay falsos vencidos
+    private Mono<Void> refreshOverdue(CreditEntity credit) {
+        boolean overdue = credit.getDueDate() != null && credit.getDueDate().isBefore(LocalDateTime.now())
+                && credit.getBalance() != null && credit.getBalance().signum() > 0;
+        if (overdue == Boolean.TRUE.equals(credit.getOverdue())) {
+            return Mono.empty();
+        }
+        return creditRepository.refreshOverdue(credit.getId(), credit.getDueDate(), overdue);
+    }
+
+    private <T> Mono<T> retryTransient(Mono<T> operation) {
+        if (updateProperties.getMaxRetries() <= 0) {
+            return operation;
+        }
+        return operation.retryWhen(Retry.backoff(updateProperties.getMaxRetries(), updateProperties.getRetryBackoff())
+                .filter(CreditServiceImpl::isTransient)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    @Override
+    public Mono<PostingResultDto> post(String creditId, PostingRequest request) {
+        String invalid = validatePosting(request);
+        if (invalid != null) {
+            return Mono.just(postingResult(0, creditId, request, REJECTED).message(invalid).build());
+        }
+        return applyPostings(creditId, List.of(Tuples.of(0L, request))).next();
+    }
+
+    @Override
+    public Flux<PostingResultDto> postBatch(Flux<PostingRequest> requests) {
+        return requests.index()
+                .buffer(postingProperties.getBatchSize())
+                .concatMap(this::postChunk);
+    }
+
+    private Flux<PostingResultDto> postChunk(List<Tuple2<Long, PostingRequest>> batch) {
+        long firstIndex = batch.get(0).getT1();
+        PostingResultDto[] results = new PostingResultDto[batch.size()];
+        // Posición de la primera aparición de una clave repetida dentro del lote (-1 si no es repetida)
+        int[] repeatOf = new int[batch.size()];
+        Map<String, List<Tuple2<Long, PostingRequest>>> byCredit = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> keysByCredit = new HashMap<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            repeatOf[i] = -1;
+            Tuple2<Long, PostingRequest> item = batch.get(i);
+            PostingRequest request = item.getT2();
+            String invalid = request.getCreditId() == null || request.getCreditId().isBlank()
+                    ? "El crédito es obligatorio" : validatePosting(request);
+            if (invalid != null) {
+                results[i] = postingResult(item.getT1(), request.getCreditId(), request, REJECTED).message(invalid).build();
+                continue;
+            }
+            Integer first = keysByCredit.computeIfAbsent(request.getCreditId(), credit -> new HashMap<>())
+                    .putIfAbsent(request.getIdempotencyKey(), i);
+            if (first != null) {
+                repeatOf[i] = first;
+            } else {
+                byCredit.computeIfAbsent(request.getCreditId(), credit -> new ArrayList<>()).add(item);
+            }
+        }
+
+        // Una escritura por crédito; créditos distintos se escriben en paralelo y el orden se conserva dentro de cada uno
+        return Flux.fromIterable(byCredit.entrySet())
+                .flatMap(group -> applyPostings(group.getKey(), group.getValue())
+                                .onErrorResume(error -> Flux.fromIterable(group.getValue())
+                                        .map(item -> postingResult(item.getT1(), group.getKey(), item.getT2(), ERROR)
+                                                .message(RETRY_MESSAGE)
+                                                .build())),
+                        postingProperties.getConcurrency())
+                .doOnNext(result -> results[(int) (result.getIndex() - firstIndex)] = result)
+                .thenMany(Flux.defer(() -> {
+                    for (int i = 0; i < results.length; i++) {
+                        if (repeatOf[i] >= 0) {
+                            results[i] = repeatedPosting(batch.get(i), results[repeatOf[i]]);
+                        }
                     }
+                    return Flux.fromArray(results);
+                }));
+    }
 
-                    // Step 6: Update fields of the credit object
-                    existingCredit.setCreditLimit(request.getCreditLimit());
-                    existingCredit.setBalance(request.getBalance());
-                    existingCredit.setUpdatedAt(LocalDateTime.now());  // Mark the update time
+    // Un reenvío dentro del mismo lote corre la suerte del original: si se aplicó, es DUPLICATE
+    private static PostingResultDto repeatedPosting(Tuple2<Long, PostingRequest> item, PostingResultDto original) {
+        return original.toBuilder()
+                .index(item.getT1())
+                .status(APPLIED.equals(original.getStatus()) ? DUPLICATE : original.getStatus())
+                .build();
+    }
+
+    // Movimientos ya validados de un mismo crédito, en orden. Primero se reclaman sus claves en credit_postings (índice único):
+    // solo los reclamados aquí se suman al saldo; una clave ya reclamada por otro envío se resuelve sin tocar el saldo
+    private Flux<PostingResultDto> applyPostings(String creditId, List<Tuple2<Long, PostingRequest>> postings) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CreditPostingEntity> entries = postings.stream()
+                .map(posting -> CreditPostingEntity.builder()
+                        .id(new ObjectId().toHexString())
+                        .creditId(creditId)
+                        .idempotencyKey(posting.getT2().getIdempotencyKey())
+                        .type(posting.getT2().getType())
+                        .amount(posting.getT2().getAmount())
+                        .status(CreditPostingEntity.PENDING)
+                        .createdAt(now)
+                        .build())
+                .toList();
 
-                    // Step 7: Special handling for CREDIT_CARD type
-                    if ("CREDIT_CARD".equals(existingCredit.getType())) {
-                        return updateCreditCardBalance(existingCredit.getId(), request.getBalance())  // Step 8: If it's a credit card, update balance
-                                .then(creditRepository.save(existingCredit).map(this::convertToDto));  // Save updated credit and return as DTO
+        // Reintentar es seguro: una entrada que llegó a insertarse vuelve como clave duplicada con nuestro propio id
+        return retryTransient(Mono.defer(() -> postingRepository.insertAllUnordered(entries)))
+                .flatMapMany(errors -> {
+                    if (errors.isEmpty()) {
+                        return writePostings(creditId, postings, entries);
+                    }
+                    List<Integer> claimed = new ArrayList<>();
+                    List<Integer> taken = new ArrayList<>();
+                    List<PostingResultDto> failed = new ArrayList<>();
+                    for (int i = 0; i < postings.size(); i++) {
+                        BulkWriteError error = errors.get(i);
+                        if (error == null) {
+                            claimed.add(i);
+                        } else if (MongoDbErrorCodes.isDuplicateKeyCode(error.getCode())) {
+                            taken.add(i);
+                        } else {
+                            failed.add(postingResult(postings.get(i).getT1(), creditId, postings.get(i).getT2(), ERROR)
+                                    .message(RETRY_MESSAGE).build());
+                        }
                     }
+                    if (taken.isEmpty()) {
+                        return writePostings(creditId, claimed, postings, entries).concatWithValues(failed.toArray(PostingResultDto[]::new));
+                    }
+                    return postingRepository.findByCreditIdAndIdempotencyKeyIn(creditId,
+                                    taken.stream().map(i -> postings.get(i).getT2().getIdempotencyKey()).toList())
+                            .collectMap(CreditPostingEntity::getIdempotencyKey)
+                            .flatMapMany(existing -> {
+                                List<Integer> foreign = new ArrayList<>();
+                                for (int i : taken) {
+                                    CreditPostingEntity entry = existing.get(postings.get(i).getT2().getIdempotencyKey());
+                                    if (entry != null && entry.getId().equals(entries.get(i).getId())) {
+                                        claimed.add(i); // Insertada por un intento anterior de esta misma solicitud
+                                    } else {
+                                        foreign.add(i);
+                                    }
+                                }
+                                claimed.sort(null);
+                                return writePostings(creditId, claimed, postings, entries)
+                                        .concatWith(postingsTaken(creditId, foreign, postings, existing, now))
+                                        .concatWithValues(failed.toArray(PostingResultDto[]::new));
+                            });
+                });
+    }
+
+    private Flux<PostingResultDto> writePostings(String creditId, List<Integer> positions, List<Tuple2<Long, PostingRequest>> postings,
+                                                 List<CreditPostingEntity> entries) {
+        if (positions.isEmpty()) {
+            return Flux.empty();
+        }
+        return writePostings(creditId, positions.stream().map(postings::get).toList(), positions.stream().map(entries::get).toList());
+    }
 
-                    // Step 9: Save and return updated credit
-                    return creditRepository.save(existingCredit).map(this::convertToDto);
+    // Movimientos reclamados, en orden: un solo $inc condicional para todos
+    private Flux<PostingResultDto> writePostings(String creditId, List<Tuple2<Long, PostingRequest>> postings, List<CreditPostingEntity> entries) {
+        // En céntimos: las sumas parciales son exactas y la condición de Mongo compara los mismos importes que se suman
+        long[] balanceAfter = new long[postings.size()];
+        List<String> postingIds = new ArrayList<>(postings.size());
+        long net = 0;
+        long min = 0;
+        long max = 0;
+        for (int i = 0; i < postings.size(); i++) {
+            PostingRequest request = postings.get(i).getT2();
+            long amount = request.getAmount().minorUnits();
+            net += CHARGE.equals(request.getType()) ? amount : -amount;
+            min = Math.min(min, net);
+            max = Math.max(max, net);
+            balanceAfter[i] = net;
+            postingIds.add(entries.get(i).getId());
+        }
+        long delta = net;
+        Money minPrefix = Money.ofMinor(min);
+        Money maxPrefix = Money.ofMinor(max);
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        // Reintentar es seguro: si el primer intento llegó a aplicarse, sus ids ya están en pendingPostingIds y no se vuelve a sumar
+        return retryTransient(Mono.defer(() -> creditRepository.applyPostings(
+                        creditId, Money.ofMinor(delta), minPrefix, maxPrefix, postingIds, updatedAt)))
+                .flatMapMany(updated -> afterWrite(updated, Money.ofMinor(delta).toDouble(), 0)
+                        .then(finalizePostings(creditId, postingIds))
+                        .thenMany(Flux.range(0, postings.size())
+                                .map(i -> postingResult(postings.get(i).getT1(), creditId, postings.get(i).getT2(), APPLIED)
+                                        .balance(Money.ofMinor(minorUnits(updated.getBalance()) - delta + balanceAfter[i]))
+                                        .version(updated.getVersion())
+                                        .build())))
+                // El grupo no cumplió la condición: se resuelve movimiento a movimiento para aplicar los que sí caben
+                .switchIfEmpty(Flux.defer(() -> postings.size() == 1
+                        ? postingMiss(creditId, postings.get(0), entries.get(0)).flux()
+                        : Flux.range(0, postings.size())
+                                .concatMap(i -> writePostings(creditId, List.of(postings.get(i)), List.of(entries.get(i))))));
+    }
+
+    // APPLIED en el registro y después fuera de pendingPostingIds, en ese orden: un id que ya no está pendiente en el crédito
+    // consta como aplicado. Si falla no se pierde nada: el crédito sigue indicando que esos movimientos se aplicaron
+    private Mono<Void> finalizePostings(String creditId, List<String> postingIds) {
+        return Mono.defer(() -> postingRepository.markApplied(postingIds, LocalDateTime.now()))
+                .then(Mono.defer(() -> creditRepository.releasePostings(creditId, postingIds)))
+                .onErrorResume(error -> {
+                    log.warn("No se pudieron cerrar los movimientos del crédito {}: {}", creditId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Movimiento reclamado pero no aplicado: el crédito no existe, se salía de la línea / del saldo, o ya se había aplicado
+    // en un intento cuya respuesta se perdió
+    private Mono<PostingResultDto> postingMiss(String creditId, Tuple2<Long, PostingRequest> posting, CreditPostingEntity entry) {
+        PostingRequest request = posting.getT2();
+        return creditRepository.findPostingState(creditId)
+                .flatMap(state -> {
+                    if (state.pendingPostingIds().contains(entry.getId())) {
+                        // Se completa lo que no llegó a hacerse tras la escritura
+                        double delta = CHARGE.equals(request.getType()) ? request.getAmount().toDouble() : -request.getAmount().toDouble();
+                        return creditRepository.findById(creditId)
+                                .flatMap(credit -> afterWrite(credit, delta, 0))
+                                .then(finalizePostings(creditId, List.of(entry.getId())))
+                                .thenReturn(postingResult(posting.getT1(), creditId, request, APPLIED)
+                                        .balance(state.balance()).version(state.version()).build());
+                    }
+                    if (state.isFenced(entry.getId())) {
+                        // Otra solicitud lo dio por abandonado y lo retomó con la misma clave
+                        return Mono.just(postingResult(posting.getT1(), creditId, request, ERROR).message(RETRY_MESSAGE).build());
+                    }
+                    // Rechazado: se libera la clave para que el mismo movimiento pueda reenviarse más tarde
+                    return postingRepository.deletePending(entry.getId())
+                            .thenReturn(postingResult(posting.getT1(), creditId, request, REJECTED)
+                                    .balance(state.balance()).version(state.version())
+                                    .message(CHARGE.equals(request.getType())
+                                            ? "El cargo supera la línea de crédito disponible"
+                                            : "El pago supera el saldo pendiente")
+                                    .build());
                 })
-                .onErrorResume(e -> {
-                    // Step 10: Global error handler if any exception occurs
-                    return Mono.error(e);
+                .switchIfEmpty(Mono.defer(() -> postingRepository.deletePending(entry.getId())
+                        .thenReturn(postingResult(posting.getT1(), creditId, request, NOT_FOUND)
+                                .message("Crédito no encontrado con ID: " + creditId).build())));
+    }
+
+    // Claves ya reclamadas por otro envío: se resuelven contra el estado del crédito sin volver a sumar
+    private Flux<PostingResultDto> postingsTaken(String creditId, List<Integer> positions, List<Tuple2<Long, PostingRequest>> postings,
+                                                 Map<String, CreditPostingEntity> existing, LocalDateTime now) {
+        if (positions.isEmpty()) {
+            return Flux.empty();
+        }
+        return creditRepository.findPostingState(creditId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(state -> Flux.fromIterable(positions)
+                        .concatMap(i -> postingTaken(creditId, postings.get(i), existing.get(postings.get(i).getT2().getIdempotencyKey()),
+                                state.orElse(null), now)));
+    }
+
+    private Mono<PostingResultDto> postingTaken(String creditId, Tuple2<Long, PostingRequest> posting, CreditPostingEntity entry,
+                                               CreditPostingState state, LocalDateTime now) {
+        PostingRequest request = posting.getT2();
+        if (entry == null) {
+            // La entrada se eliminó entre la inserción y la lectura (movimiento rechazado): se vuelve a reclamar
+            return applyPostings(creditId, List.of(posting)).next();
+        }
+        if (state == null) {
+            return Mono.just(postingResult(posting.getT1(), creditId, request, NOT_FOUND).message("Crédito no encontrado con ID: " + creditId).build());
+        }
+        PostingResultDto duplicate = postingResult(posting.getT1(), creditId, request, DUPLICATE)
+                .balance(state.balance()).version(state.version()).build();
+        if (CreditPostingEntity.APPLIED.equals(entry.getStatus()) || state.pendingPostingIds().contains(entry.getId())) {
+            return Mono.just(duplicate);
+        }
+        if (entry.getCreatedAt() != null && entry.getCreatedAt().isAfter(now.minus(postingProperties.getPendingTimeout()))) {
+            return Mono.just(postingResult(posting.getT1(), creditId, request, ERROR)
+                    .message("El movimiento con esta clave aún se está procesando; puede reintentarse").build());
+        }
+        // Abandonado: se bloquea en el crédito para que su solicitud original ya no pueda aplicarlo y la clave se reclama de nuevo.
+        // Si no se pudo bloquear es porque ya se había aplicado. Resuelto el nuevo movimiento, el bloqueo pasa a fencedBefore
+        return creditRepository.fencePosting(creditId, entry.getId())
+                .flatMap(fenced -> fenced
+                        ? postingRepository.deletePending(entry.getId())
+                                .then(applyPostings(creditId, List.of(posting)).next())
+                                .flatMap(result -> releaseFencedPosting(creditId, entry.getId()).thenReturn(result))
+                        : Mono.just(duplicate));
+    }
+
+    // Si falla, el id sigue bloqueado en fencedPostingIds: solo queda sin liberar
+    private Mono<Void> releaseFencedPosting(String creditId, String postingId) {
+        return Mono.defer(() -> creditRepository.releaseFencedPosting(creditId, postingId))
+                .onErrorResume(error -> {
+                    log.warn("No se pudo liberar el movimiento retomado {} del crédito {}: {}", postingId, creditId, error.getMessage());
+                    return Mono.empty();
                 });
     }
 
+    private static String validatePosting(PostingRequest request) {
+        if (request.getIdempotencyKey() == null || request.getIdempotencyKey().isBlank()) {
+            return "La clave de idempotencia es obligatoria";
+        }
+        if (!CHARGE.equals(request.getType()) && !PAYMENT.equals(request.getType())) {
+            return "Tipo de movimiento no válido: " + request.getType();
+        }
+        // Un importe que redondea a 0 céntimos tampoco es positivo
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return "El importe debe ser positivo";
+        }
+        return null;
+    }
+
+    private static PostingResultDto.PostingResultDtoBuilder postingResult(long index, String creditId, PostingRequest request, String status) {
+        return PostingResultDto.builder()
+                .index(index)
+                .creditId(creditId)
+                .idempotencyKey(request.getIdempotencyKey())
+                .status(status);
+    }
+
+    // Con versión esperada, un fallo puede ser conflicto o inexistencia: se distingue solo en ese caso poco frecuente
+    private Mono<CreditEntity> updateMiss(String id, Long expectedVersion) {
+        Mono<CreditEntity> notFound = Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Crédito no encontrado con ID: " + id));
+        if (expectedVersion == null) {
+            return notFound;
+        }
+        return creditRepository.findById(id)
+                .flatMap(current -> Mono.<CreditEntity>error(new ResponseStatusException(HttpStatus.CONFLICT,
+                        "El crédito " + id + " fue modificado por otra operación: versión esperada " + expectedVersion
+                                + ", versión actual " + valueOf(current.getVersion()))))
+                .switchIfEmpty(notFound);
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return error instanceof TransientDataAccessException || error instanceof DataAccessResourceFailureException;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
 
+    private static long minorUnits(Money value) {
+        return value != null ? value.minorUnits() : 0L;
+    }
+
+    // Diferencia exacta en céntimos; los totales por intervalo siguen acumulándose en double
+    private static double delta(Money after, Money before) {
+        return Money.ofMinor(minorUnits(after) - minorUnits(before)).toDouble();
+    }
 
     @Override
-    public Mono<Void> deleteById(String id) {
-        return creditRepository.findById(id).flatMap(creditRepository::delete);
+    public Mono<Boolean> deleteById(String id) {
+        // findAndRemove: un solo viaje que además devuelve el crédito eliminado para descontarlo de los totales
+        return creditRepository.findAndRemoveById(id)
+                .flatMap(credit -> rollupService.recordDeleted(credit)
+                        .then(creditCache.removed(credit.getId(), credit.getCustomerId()))
+                        .thenReturn(true))
+                .defaultIfEmpty(false);
     }
 
     @Override
     public Mono<Boolean> hasActiveCreditCard(String customerId) {
-        return creditRepository.findByCustomerId(customerId)
-                .any(credit -> "CREDIT_CARD".equalsIgnoreCase(credit.getType()) && Boolean.TRUE.equals(credit.getActive()));
+        if (portfolioReadModel.isReady()) {
+            return Mono.just(portfolioReadModel.get(customerId).hasActiveCard());
+        }
+        return creditRepository.existsActiveCreditCard(customerId);
     }
 
 
     @Override
     public Mono<Boolean> hasOverdueDebts(String customerId) {
-        return creditRepository.findByCustomerId(customerId)
-                .any(credit -> credit.getDueDate().isBefore(LocalDateTime.now()) && credit.getBalance() > 0)
-                .doOnNext(hasDebts -> {
-                    if (hasDebts) {
-                        log.info("El cliente con ID {} tiene deudas vencidas.", customerId);
-                    } else {
-                        log.info("El cliente con ID {} no tiene deudas vencidas.", customerId);
-                    }
-                })
+        if (portfolioReadModel.isReady()) {
+            return Mono.just(portfolioReadModel.get(customerId).hasOverdueDebts(System.currentTimeMillis()));
+        }
+        // Con el barrido activo es una búsqueda puntual sobre la marca overdue más el tramo aún sin barrer
+        return creditRepository.existsOverdueDebt(customerId, overdueDebtSweeper.sweptUntil(), LocalDateTime.now())
+                // Ruta caliente: el detalle por solicitud solo se registra en debug; el volumen se mide con métricas
+                .doOnNext(hasDebts -> log.debug("El cliente con ID {} {} deudas vencidas.", customerId, hasDebts ? "tiene" : "no tiene"))
                 .onErrorResume(error -> {
                     log.error("Error al verificar deudas vencidas para cliente ID {}: {}", customerId, error.getMessage());
                     return Mono.just(false);
                 });
     }
 
+    @Override
+    public Flux<CustomerEligibilityDto> checkEligibility(List<String> customerIds) {
+        Set<String> distinctIds = new LinkedHashSet<>(customerIds);
+        if (distinctIds.size() > eligibilityProperties.getMaxCustomers()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Se admiten como máximo " + eligibilityProperties.getMaxCustomers() + " clientes por consulta"));
+        }
+        if (portfolioReadModel.isReady()) {
+            long nowMillis = System.currentTimeMillis();
+            return Flux.fromIterable(distinctIds).map(customerId -> portfolioReadModel.get(customerId).toEligibility(nowMillis));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sweptUntil = overdueDebtSweeper.sweptUntil();
+        // Cada lote es una agregación; los resultados se emiten en cuanto llega cada lote
+        return Flux.fromIterable(distinctIds)
+                .buffer(eligibilityProperties.getBatchSize())
+                .flatMap(batch -> {
+                    Set<String> pending = new HashSet<>(batch);
+                    return creditRepository.findEligibility(batch, sweptUntil, now)
+                            .doOnNext(eligibility -> pending.remove(eligibility.getCustomerId()))
+                            // Los clientes sin créditos no aparecen en la agregación: no tienen tarjeta ni deudas
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(pending)
+                                    .map(customerId -> new CustomerEligibilityDto(customerId, false, false))));
+                }, eligibilityProperties.getConcurrency());
+    }
+
+    @Override
+    public Mono<CustomerPortfolioDto> getPortfolio(String customerId) {
+        long nowMillis = System.currentTimeMillis();
+        if (portfolioReadModel.isReady()) {
+            return Mono.just(portfolioReadModel.get(customerId).toDto(nowMillis));
+        }
+        // Sin la cartera en memoria se calcula el mismo resumen a partir de los créditos del cliente
+        return creditRepository.findByCustomerId(customerId)
+                .map(CreditFacts::of)
+                .collectList()
+                .map(credits -> CustomerPortfolio.of(customerId, credits).toDto(nowMillis));
+    }
+
     @Override
     public Mono<List<CreditDto>> generateReport(String startDate, String endDate) {
-        LocalDateTime start = LocalDateTime.parse(startDate);
-        LocalDateTime end = LocalDateTime.parse(endDate);
+        return streamReport(startDate, endDate).collectList();
+    }
 
-        return creditRepository.findAllByCreatedAtBetween(start, end)
-                .map(this::convertToDto)
-                .collectList();
+    @Override
+    public Flux<CreditDto> streamReport(String startDate, String endDate) {
+        // Se difiere el parseo para que un error de formato llegue como señal de error del flujo
+        return Flux.defer(() -> {
+            LocalDateTime start = LocalDateTime.parse(startDate);
+            LocalDateTime end = LocalDateTime.parse(endDate);
+            return creditRepository.findAllByCreatedAtBetween(start, end);
+        }).map(this::convertToDto);
+    }
+
+    @Override
+    public Flux<CreditReportSummaryDto> summarizeReport(String startDate, String endDate) {
+        return Flux.defer(() -> creditRepository.summarizeByDayAndType(LocalDateTime.parse(startDate), LocalDateTime.parse(endDate)));
+    }
+
+    @Override
+    public Flux<DataBuffer> exportReportCsv(String startDate, String endDate, DataBufferFactory bufferFactory) {
+        // Las entidades van del cursor al CSV sin pasar por CreditDto ni por una lista intermedia
+        return Flux.defer(() -> CreditCsvWriter.write(
+                creditRepository.findAllByCreatedAtBetween(LocalDateTime.parse(startDate), LocalDateTime.parse(endDate)),
+                bufferFactory));
+    }
+
+    @Override
+    public Mono<PageDto<CreditDto>> generateReportPage(String startDate, String endDate, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            LocalDateTime start = LocalDateTime.parse(startDate);
+            LocalDateTime end = LocalDateTime.parse(endDate);
+            return fetchPage(cursor, size, (after, limit) -> creditRepository.findPageByCreatedAtBetween(start, end, after, limit));
+        });
     }
 
     @Override
     public Flux<CreditDto> findByCustomerId(String customerId) {
-        return creditRepository.findByCustomerId(customerId)
-                .map(this::convertToDto);
+        return creditCache.getByCustomerId(customerId, key -> creditRepository.findByCustomerId(key).map(this::convertToDto));
+    }
+
+    @Override
+    public Mono<PageDto<CreditDto>> findPageByCustomerId(String customerId, String cursor, Integer size) {
+        return fetchPage(cursor, size, (after, limit) -> creditRepository.findPageByCustomerId(customerId, after, limit));
     }
 
 }
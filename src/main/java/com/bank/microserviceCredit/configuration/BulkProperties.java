@@ -0,0 +1,12 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "credit.bulk")
+public class BulkProperties {
+
+    private int batchSize = 500; // Créditos validados e insertados por lote
+    private int verificationConcurrency = 16; // Verificaciones de clientes simultáneas por lote
+}
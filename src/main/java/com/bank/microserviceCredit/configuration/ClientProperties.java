@@ -0,0 +1,51 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.clients")
+public class ClientProperties {
+
+    private Endpoint customer = new Endpoint("http://localhost:8082/customers");
+    private Endpoint account = new Endpoint("http://localhost:8081/");
+
+    @Data
+    public static class Endpoint {
+
+        private String baseUrl;
+
+        // Conexiones
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration responseTimeout = Duration.ofSeconds(3); // Tiempo máximo total por llamada
+        private int maxConnections = 100; // Tamaño del pool dedicado a esta dependencia
+        private int pendingAcquireMaxCount = 200; // Peticiones que pueden esperar una conexión libre
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+        private Duration maxIdleTime = Duration.ofSeconds(30); // Menor que el keep-alive del servidor remoto
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private boolean keepAlive = true;
+
+        // Bulkhead: llamadas simultáneas permitidas; el resto se rechaza sin esperar
+        private int maxConcurrentCalls = 50;
+
+        // Circuit breaker
+        private float failureRateThreshold = 50; // Porcentaje de fallos que abre el circuito
+        private float slowCallRateThreshold = 100; // Porcentaje de llamadas lentas que abre el circuito
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        // Solicitud duplicada para GET idempotentes si la primera no respondió a tiempo (0 = desactivado)
+        private Duration hedgeDelay = Duration.ZERO;
+
+        public Endpoint() {
+        }
+
+        public Endpoint(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private Duration retryAfter = Duration.ofSeconds(1); // Valor de Retry-After en las respuestas 503
+    private double backoffRatio = 0.9; // Factor que reduce el límite tras una solicitud lenta o fallida
+    // Una clase cede ante otra de mayor prioridad cuando esta usa esta fracción de su límite
+    private double priorityHeadroom = 0.8;
+
+    // De mayor a menor prioridad
+    private RouteLimit eligibility = new RouteLimit(50, 10, 500, Duration.ofMillis(250));
+    private RouteLimit crud = new RouteLimit(50, 10, 300, Duration.ofMillis(500));
+    private RouteLimit reports = new RouteLimit(10, 2, 50, Duration.ofSeconds(5));
+
+    @Data
+    public static class RouteLimit {
+
+        private int initialLimit; // Solicitudes simultáneas admitidas al arrancar
+        private int minLimit;
+        private int maxLimit;
+        private Duration latencyThreshold; // Por encima se considera que el servicio está saturado y el límite baja
+
+        public RouteLimit() {
+        }
+
+        public RouteLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
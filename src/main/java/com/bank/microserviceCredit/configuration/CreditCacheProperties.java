@@ -0,0 +1,17 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.credit-cache")
+public class CreditCacheProperties {
+
+    private boolean enabled = true; // Caché local de créditos por ID y por cliente
+    private long maxSize = 50_000; // Créditos por ID en caché
+    private long maxCustomerCredits = 200_000; // Total de créditos en las listas por cliente (cada lista pesa su tamaño)
+    private Duration ttl = Duration.ofMinutes(1); // Vigencia máxima, también cota del desfase si se pierde una invalidación remota
+    private String invalidation = "in-memory"; // Canal de invalidación entre réplicas
+}
@@ -0,0 +1,14 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.update")
+public class CreditUpdateProperties {
+
+    private int maxRetries = 2; // Reintentos ante fallos transitorios de Mongo en actualizaciones con versión (0 = sin reintentos)
+    private Duration retryBackoff = Duration.ofMillis(50); // Espera inicial entre reintentos, con crecimiento exponencial
+}
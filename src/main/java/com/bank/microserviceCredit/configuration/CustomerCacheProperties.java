@@ -0,0 +1,15 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.customer-cache")
+public class CustomerCacheProperties {
+
+    private long maxSize = 10_000; // Número máximo de clientes en caché
+    private Duration ttl = Duration.ofMinutes(5); // Vigencia de un cliente verificado
+    private Duration negativeTtl = Duration.ofSeconds(10); // Vigencia corta de un cliente no válido
+}
@@ -0,0 +1,16 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.eligibility")
+public class EligibilityProperties {
+
+    private int batchSize = 500; // Clientes por agregación ($in acotado)
+    private int concurrency = 4; // Agregaciones simultáneas por petición
+    private int maxCustomers = 10_000; // Clientes admitidos por petición
+    private Duration channelFlush = Duration.ofMillis(5); // Espera máxima para agrupar los clientes recibidos por el canal RSocket
+}
@@ -0,0 +1,116 @@
+package com.bank.microserviceCredit.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToLongFunction;
+
+/**
+ * Métricas propias del servicio. La latencia por endpoint (http.server.requests), por método de repositorio
+ * (spring.data.repository.invocations), por comando de Mongo (mongodb.driver.commands) y por cliente HTTP
+ * (http.client.requests y credit.client.requests) la registran Spring Boot y los filtros de los WebClient.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String SCHEDULER_METRICS_KEY = "credit.scheduler.metrics";
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> applicationTagCustomizer(@Value("${spring.application.name}") String application) {
+        return registry -> registry.config().commonTags("application", application);
+    }
+
+    /**
+     * Instrumenta los ejecutores de los schedulers de Reactor (parallel, boundedElastic) con las métricas
+     * reactor.executor.*: tareas en cola, hilos activos y tareas completadas, sumadas por tipo de scheduler.
+     * boundedElastic crea y desaloja ejecutores continuamente, así que no se registra un juego de métricas por
+     * ejecutor (la cardinalidad y el registro crecerían sin límite): cada tipo registra sus métricas una sola vez y
+     * los ejecutores terminados dejan de contarse. Aplica a los ejecutores creados después del arranque del registro.
+     */
+    @Bean
+    public MeterBinder reactorSchedulerMetrics() {
+        return registry -> {
+            Map<String, SchedulerExecutors> schedulers = new ConcurrentHashMap<>();
+            // El decorador es global en Reactor: si otro contexto lo registró antes, se sustituye por el de este registro
+            Schedulers.removeExecutorServiceDecorator(SCHEDULER_METRICS_KEY);
+            Schedulers.addExecutorServiceDecorator(SCHEDULER_METRICS_KEY, (scheduler, executor) -> {
+                if (executor instanceof ThreadPoolExecutor pool) {
+                    schedulers.computeIfAbsent(schedulerName(scheduler.toString()), name -> new SchedulerExecutors(registry, name))
+                            .add(pool);
+                }
+                return executor;
+            });
+        };
+    }
+
+    // Schedulers.parallel() se describe como "parallel(4,"parallel")": se conserva solo el tipo para acotar la cardinalidad
+    private static String schedulerName(String description) {
+        int parenthesis = description.indexOf('(');
+        return parenthesis > 0 ? description.substring(0, parenthesis) : description;
+    }
+
+    /**
+     * Ejecutores vivos de un tipo de scheduler. Los terminados se retiran al leer o al añadir uno nuevo y sus tareas
+     * completadas pasan a un acumulado, para que el contador no retroceda. Las lecturas y altas están sincronizadas:
+     * solo ocurren al crear un ejecutor o al leer las métricas.
+     */
+    private static final class SchedulerExecutors {
+
+        private final Set<ThreadPoolExecutor> executors = new HashSet<>();
+        private long retiredCompleted;
+
+        SchedulerExecutors(MeterRegistry registry, String scheduler) {
+            Gauge.builder("reactor.executor.queued", this, executors -> executors.sum(pool -> pool.getQueue().size()))
+                    .tag("scheduler", scheduler)
+                    .description("Tareas en cola en los ejecutores del scheduler")
+                    .baseUnit("tasks")
+                    .register(registry);
+            Gauge.builder("reactor.executor.active", this, executors -> executors.sum(ThreadPoolExecutor::getActiveCount))
+                    .tag("scheduler", scheduler)
+                    .description("Hilos ejecutando tareas en los ejecutores del scheduler")
+                    .baseUnit("threads")
+                    .register(registry);
+            FunctionCounter.builder("reactor.executor.completed", this, SchedulerExecutors::completed)
+                    .tag("scheduler", scheduler)
+                    .description("Tareas completadas por los ejecutores del scheduler")
+                    .baseUnit("tasks")
+                    .register(registry);
+        }
+
+        synchronized void add(ThreadPoolExecutor executor) {
+            retireTerminated();
+            executors.add(executor);
+        }
+
+        synchronized double completed() {
+            return sum(ThreadPoolExecutor::getCompletedTaskCount) + retiredCompleted;
+        }
+
+        private synchronized double sum(ToLongFunction<ThreadPoolExecutor> metric) {
+            retireTerminated();
+            return executors.stream().mapToLong(metric).sum();
+        }
+
+        private void retireTerminated() {
+            executors.removeIf(executor -> {
+                if (!executor.isTerminated()) {
+                    return false;
+                }
+                retiredCompleted += executor.getCompletedTaskCount();
+                return true;
+            });
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.microserviceCredit.configuration;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * Conversiones propias del mapeo de Mongo. Los importes (Money) se guardan como Decimal128: exactos y comparables
+ * con los double de los documentos anteriores en consultas, $inc y $sum. Al leer se acepta cualquier tipo numérico,
+ * así que no hace falta migrar la colección.
+ */
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(MoneyToDecimal128Converter.INSTANCE, NumberToMoneyConverter.INSTANCE));
+    }
+
+    @WritingConverter
+    enum MoneyToDecimal128Converter implements Converter<Money, Decimal128> {
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(Money source) {
+            return new Decimal128(source.toBigDecimal());
+        }
+    }
+
+    // Double en los documentos anteriores, Decimal128 en los nuevos; Integer o Long si se escribieron a mano
+    @ReadingConverter
+    enum NumberToMoneyConverter implements Converter<Number, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(Number source) {
+            return source instanceof Decimal128 decimal ? Money.of(decimal.bigDecimalValue()) : Money.valueOf(source);
+        }
+    }
+}
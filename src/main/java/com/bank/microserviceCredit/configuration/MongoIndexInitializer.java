@@ -0,0 +1,101 @@
+package com.bank.microserviceCredit.configuration;
+
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.Model.entity.CreditPostingEntity;
+import com.bank.microserviceCredit.Model.entity.CreditRollupEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Crea los índices de las colecciones de créditos al arrancar, antes de que el servidor web y RSocket acepten
+ * conexiones: los índices únicos (créditos PERSONAL, claves de idempotencia de movimientos) son la única garantía
+ * de sus reglas, así que no puede haber tráfico sin ellos. Si un índice no se puede crear (MongoDB no disponible,
+ * duplicados previos) el arranque falla.
+ * ensureIndex es idempotente, así que es seguro ejecutarlo en cada arranque y en varias réplicas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer implements SmartLifecycle {
+
+    // Antes que el servidor web (DEFAULT_PHASE - 2048) y que el servidor RSocket (DEFAULT_PHASE)
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    // Garantiza en base de datos la regla "un solo crédito PERSONAL por cliente"
+    private static final IndexDefinition PERSONAL_CREDIT_UNIQUE = new Index()
+            .on("customerId", Sort.Direction.ASC)
+            .named("personal_credit_unique_idx")
+            .unique()
+            .partial(PartialIndexFilter.of(Criteria.where("type").is("PERSONAL")));
+
+    // Créditos con saldo por marca y vencimiento: el barrido marca tramos, repara los que llegaron tarde y desmarca los aplazados
+    private static final IndexDefinition OVERDUE_OUTSTANDING = new Index()
+            .on("overdue", Sort.Direction.ASC)
+            .on("dueDate", Sort.Direction.ASC)
+            .named("overdue_due_date_outstanding_idx")
+            .partial(PartialIndexFilter.of(Criteria.where("balance").gt(0)));
+
+    // Saldos de tarjeta pendientes de enviar al servicio de cuentas, por turno (AccountBalanceOutboxDispatcher)
+    private static final IndexDefinition ACCOUNT_SYNC_DUE = new Index()
+            .on("accountSync.nextAttemptAt", Sort.Direction.ASC)
+            .named("account_sync_due_idx")
+            .partial(PartialIndexFilter.of(Criteria.where("type").is("CREDIT_CARD")));
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MongoIndexProperties properties;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        if (properties.isEnabled()) {
+            ensureIndexes().blockLast(properties.getTimeout());
+        } else {
+            log.warn("Creación de índices desactivada (credit.mongo-indexes.enabled=false): no se verifica la unicidad de créditos PERSONAL");
+        }
+        running = true;
+    }
+
+    Flux<String> ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        return ensureIndexes(CreditEntity.class, Flux.<IndexDefinition>fromIterable(resolver.resolveIndexFor(CreditEntity.class))
+                .concatWithValues(PERSONAL_CREDIT_UNIQUE, OVERDUE_OUTSTANDING, ACCOUNT_SYNC_DUE))
+                .concatWith(ensureIndexes(CreditPostingEntity.class, Flux.fromIterable(resolver.resolveIndexFor(CreditPostingEntity.class))))
+                .concatWith(ensureIndexes(CreditRollupEntity.class, Flux.fromIterable(resolver.resolveIndexFor(CreditRollupEntity.class))));
+    }
+
+    private Flux<String> ensureIndexes(Class<?> entityClass, Flux<? extends IndexDefinition> indexes) {
+        ReactiveIndexOperations indexOperations = mongoTemplate.indexOps(entityClass);
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        return indexes.concatMap(index -> indexOperations.ensureIndex(index)
+                .doOnNext(name -> log.info("Índice {} verificado en la colección {}", name, collection))
+                .doOnError(error -> log.error("No se pudo crear el índice {} en {}: {}", index.getIndexKeys(), collection, error.getMessage())));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.mongo-indexes")
+public class MongoIndexProperties {
+
+    private boolean enabled = true; // Verifica los índices al arrancar, antes de aceptar tráfico; sin ellos la aplicación no arranca
+    private Duration timeout = Duration.ofMinutes(5); // Espera máxima para crear los índices (la primera vez recorren la colección)
+}
@@ -0,0 +1,19 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true; // Arranca el despachador en segundo plano
+    private Duration pollInterval = Duration.ofSeconds(1); // Espera entre lecturas de la bandeja
+    private int batchSize = 100; // Entradas leídas por ciclo
+    private int concurrency = 8; // Envíos simultáneos al servicio de cuentas
+    private Duration lease = Duration.ofSeconds(30); // Reserva de un saldo mientras se envía; debe superar el timeout del cliente de cuentas
+    private Duration initialBackoff = Duration.ofSeconds(1); // Espera tras el primer fallo
+    private Duration maxBackoff = Duration.ofMinutes(5); // Espera máxima entre reintentos
+}
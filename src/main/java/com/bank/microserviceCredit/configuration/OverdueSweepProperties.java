@@ -0,0 +1,16 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.overdue-sweep")
+public class OverdueSweepProperties {
+
+    private boolean enabled = true; // Arranca el barrido y las consultas de deudas vencidas usan la marca overdue
+    private Duration interval = Duration.ofMinutes(1); // Espera entre barridos
+    private Duration partitionSize = Duration.ofDays(1); // Tramo de dueDate marcado por cada updateMany
+    private int concurrency = 4; // Tramos marcados en paralelo
+}
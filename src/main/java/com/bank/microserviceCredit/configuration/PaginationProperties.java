@@ -0,0 +1,25 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "credit.pagination")
+public class PaginationProperties {
+
+    private int defaultSize = 50; // Tamaño usado cuando el cliente no lo indica
+    private int maxSize = 500; // Límite superior para evitar páginas que recorran toda la colección
+
+    /**
+     * Normaliza el tamaño solicitado al rango [1, maxSize].
+     *
+     * @param requested Tamaño pedido por el cliente (puede ser nulo).
+     * @return Tamaño de página efectivo.
+     */
+    public int resolve(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return Math.min(defaultSize, maxSize);
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.portfolio")
+public class PortfolioProperties {
+
+    private boolean enabled = false; // Requiere MongoDB en replica set (change streams)
+    private Duration reconnectBackoff = Duration.ofSeconds(1); // Espera inicial antes de reabrir el change stream
+    private Duration maxReconnectBackoff = Duration.ofMinutes(1); // Espera máxima entre reintentos
+}
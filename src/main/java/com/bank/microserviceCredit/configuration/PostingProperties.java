@@ -0,0 +1,15 @@
+package com.bank.microserviceCredit.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "credit.posting")
+public class PostingProperties {
+
+    private Duration pendingTimeout = Duration.ofMinutes(1); // Tras este tiempo un movimiento PENDING sin aplicar se da por abandonado y se retoma
+    private int batchSize = 1_000; // Movimientos agrupados por lote en el modo masivo
+    private int concurrency = 32; // Escrituras simultáneas (una por crédito) dentro de un lote
+}
@@ -0,0 +1,132 @@
+package com.bank.microserviceCredit.configuration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Construye WebClients con pool de conexiones propio, timeouts, bulkhead, circuit breaker,
+ * solicitudes duplicadas opcionales (hedging) para GET y métricas por dependencia.
+ */
+public class ResilientWebClientFactory {
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+    public ResilientWebClientFactory(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // Estado del circuito, tasa de fallos y llamadas disponibles del bulkhead por dependencia
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    public WebClient create(String name, ClientProperties.Endpoint endpoint, WebClient.Builder builder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(endpoint.getMaxConnections())
+                .pendingAcquireMaxCount(endpoint.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(endpoint.getPendingAcquireTimeout())
+                .maxIdleTime(endpoint.getMaxIdleTime())
+                .maxLifeTime(endpoint.getMaxLifeTime())
+                .evictInBackground(endpoint.getMaxIdleTime())
+                .metrics(true) // reactor.netty.connection.provider.* (conexiones activas, inactivas y pendientes)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) endpoint.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, endpoint.isKeepAlive())
+                .keepAlive(endpoint.isKeepAlive())
+                .responseTimeout(endpoint.getResponseTimeout());
+
+        return builder
+                .baseUrl(endpoint.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // El primer filtro es el más externo: mide y limita el tiempo de la llamada completa, incluidas las duplicadas
+                .filter(metrics(name))
+                .filter(timeout(endpoint.getResponseTimeout()))
+                .filter(hedging(endpoint.getHedgeDelay()))
+                .filter(resilience(name, endpoint))
+                .build();
+    }
+
+    private ExchangeFilterFunction metrics(String name) {
+        return (request, next) -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnNext(response -> sample.stop(timer(name, request.method(), String.valueOf(response.statusCode().value()))))
+                    .doOnError(error -> sample.stop(timer(name, request.method(), error.getClass().getSimpleName())));
+        };
+    }
+
+    private Timer timer(String name, HttpMethod method, String outcome) {
+        return Timer.builder("credit.client.requests")
+                .description("Latencia de las llamadas a servicios externos")
+                .tag("client", name)
+                .tag("method", method.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static ExchangeFilterFunction timeout(Duration timeout) {
+        return (request, next) -> next.exchange(request).timeout(timeout);
+    }
+
+    // Solo para GET: si no hay respuesta tras hedgeDelay se lanza una segunda petición y gana la primera en responder
+    private static ExchangeFilterFunction hedging(Duration hedgeDelay) {
+        return (request, next) -> {
+            if (hedgeDelay.isZero() || hedgeDelay.isNegative() || request.method() != HttpMethod.GET) {
+                return next.exchange(request);
+            }
+            Mono<ClientResponse> primary = next.exchange(request);
+            Mono<ClientResponse> hedge = Mono.delay(hedgeDelay).then(Mono.defer(() -> next.exchange(request)));
+            return Mono.firstWithValue(primary, hedge);
+        };
+    }
+
+    private ExchangeFilterFunction resilience(String name, ClientProperties.Endpoint endpoint) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, CircuitBreakerConfig.custom()
+                .failureRateThreshold(endpoint.getFailureRateThreshold())
+                .slowCallRateThreshold(endpoint.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(endpoint.getSlowCallDurationThreshold())
+                .slidingWindowSize(endpoint.getSlidingWindowSize())
+                .minimumNumberOfCalls(endpoint.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(endpoint.getWaitDurationInOpenState())
+                .build());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(endpoint.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        // Las respuestas 5xx se convierten en error para que cuenten como fallo en el circuit breaker
+        Function<ClientResponse, Mono<ClientResponse>> failOnServerError = response -> response.statusCode().is5xxServerError()
+                ? response.createException().flatMap(Mono::error)
+                : Mono.just(response);
+
+        return (request, next) -> next.exchange(request)
+                .flatMap(failOnServerError)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+}
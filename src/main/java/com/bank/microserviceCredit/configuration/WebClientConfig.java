@@ -1,25 +1,29 @@
 package com.bank.microserviceCredit.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class WebClientConfig {
+
+    // Registra las métricas de los clientes en el mismo registro que expone el endpoint de Prometheus
+    @Bean
+    public ResilientWebClientFactory resilientWebClientFactory(MeterRegistry meterRegistry) {
+        return new ResilientWebClientFactory(meterRegistry);
+    }
+
     // Define el WebClient como un bean para el CustomerService
     @Bean
-    public WebClient customerWebClient() {
-        return WebClient.builder()
-                .baseUrl("http://localhost:8082/customers")
-                .build();
+    public WebClient customerWebClient(ResilientWebClientFactory factory, ClientProperties properties, WebClient.Builder builder) {
+        return factory.create("customer", properties.getCustomer(), builder.clone());
     }
 
 
     @Bean
-    public WebClient accountWebClient() {
-        return WebClient.builder()
-                .baseUrl("http://localhost:8081/") // URL base del servicio de cuentas
-                .defaultHeader("Content-Type", "application/json")
-                .build();
+    public WebClient accountWebClient(ResilientWebClientFactory factory, ClientProperties properties, WebClient.Builder builder) {
+        return factory.create("account", properties.getAccount(), builder.clone()
+                .defaultHeader("Content-Type", "application/json"));
     }
 }
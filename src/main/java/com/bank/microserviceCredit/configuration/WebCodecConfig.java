@@ -0,0 +1,16 @@
+package com.bank.microserviceCredit.configuration;
+
+import com.bank.microserviceCredit.controller.CreditJsonEncoder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+public class WebCodecConfig implements WebFluxConfigurer {
+
+    // Los codificadores propios con tipo concreto se consultan antes que Jackson; el resto de respuestas no cambia
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new CreditJsonEncoder());
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.configuration.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de solicitudes simultáneas que se ajusta con la latencia observada (AIMD): cada respuesta rápida
+ * con el límite en uso lo sube en uno y cada respuesta lenta o fallida lo multiplica por backoffRatio.
+ * Así el límite se acerca a la concurrencia que el servicio soporta sin que crezca la latencia.
+ */
+final class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    AimdLimiter(ConcurrencyLimitProperties.RouteLimit properties, double backoffRatio) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+    }
+
+    /**
+     * Reserva un hueco si hay capacidad.
+     *
+     * @return false si ya hay tantas solicitudes en curso como el límite.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco y ajusta el límite con el resultado de la solicitud.
+     *
+     * @param latencyNanos Duración de la solicitud.
+     * @param failed       true si terminó con error o 5xx: cuenta como señal de saturación.
+     */
+    void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                // Solo se sube si el límite se estaba usando; con poca carga no hay nada que aprender
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    // Solicitud cancelada por el cliente: su duración no dice nada del servicio
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    // true si las solicitudes en curso ocupan al menos esa fracción del límite
+    boolean isBusy(double headroom) {
+        return inFlight.get() >= getLimit() * headroom;
+    }
+}
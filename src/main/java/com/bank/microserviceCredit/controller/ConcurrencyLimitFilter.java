@@ -0,0 +1,158 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.shared.ResponseDtoBuilder;
+import com.bank.microserviceCredit.configuration.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita las solicitudes simultáneas de la API de créditos con un {@link AimdLimiter} por clase de ruta
+ * (elegibilidad, CRUD y reportes). Lo que excede el límite se rechaza al instante con 503 y Retry-After, en lugar
+ * de acumular cadenas reactivas esperando a MongoDB o al servicio de clientes.
+ * <p>
+ * Las clases tienen prioridad: mientras una de mayor prioridad usa priorityHeadroom de su límite, las de menor
+ * prioridad se rechazan, de modo que los reportes son lo primero que se descarta y la elegibilidad lo último.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    // Orden de prioridad: las primeras se protegen a costa de las siguientes
+    enum RouteClass {
+        ELIGIBILITY,
+        CRUD,
+        REPORTS
+    }
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+    private static final List<Map.Entry<PathPattern, RouteClass>> ROUTES = List.of(
+            Map.entry(PARSER.parse("/api/credits/customers/eligibility"), RouteClass.ELIGIBILITY),
+            Map.entry(PARSER.parse("/api/credits/customer/{customerId}/has-active-card"), RouteClass.ELIGIBILITY),
+            Map.entry(PARSER.parse("/api/credits/customer/{customerId}/has-overdue-debts"), RouteClass.ELIGIBILITY),
+            Map.entry(PARSER.parse("/api/credits/customer/{customerId}/portfolio"), RouteClass.ELIGIBILITY),
+            Map.entry(PARSER.parse("/api/credits/report/**"), RouteClass.REPORTS),
+            Map.entry(PARSER.parse("/api/credits/**"), RouteClass.CRUD));
+
+    private final ConcurrencyLimitProperties properties;
+    private final Map<RouteClass, AimdLimiter> limiters = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+    private final byte[] rejectionBody;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) throws JsonProcessingException {
+        this.properties = properties;
+        limiters.put(RouteClass.ELIGIBILITY, new AimdLimiter(properties.getEligibility(), properties.getBackoffRatio()));
+        limiters.put(RouteClass.CRUD, new AimdLimiter(properties.getCrud(), properties.getBackoffRatio()));
+        limiters.put(RouteClass.REPORTS, new AimdLimiter(properties.getReports(), properties.getBackoffRatio()));
+        limiters.forEach((routeClass, limiter) -> {
+            String route = routeClass.name().toLowerCase();
+            Gauge.builder("credit.concurrency.limit", limiter, AimdLimiter::getLimit)
+                    .description("Solicitudes simultáneas admitidas")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            Gauge.builder("credit.concurrency.in-flight", limiter, AimdLimiter::getInFlight)
+                    .description("Solicitudes en curso")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            rejected.put(routeClass, Counter.builder("credit.concurrency.rejected")
+                    .description("Solicitudes rechazadas con 503 por límite de concurrencia o prioridad")
+                    .tag("route", route)
+                    .register(meterRegistry));
+        });
+        this.rejectionBody = objectMapper.writeValueAsBytes(ResponseDtoBuilder.error("Servicio saturado; reintente más tarde"));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RouteClass routeClass = properties.isEnabled() ? classify(exchange) : null;
+        if (routeClass == null) {
+            return chain.filter(exchange);
+        }
+        AimdLimiter limiter = limiters.get(routeClass);
+        if (higherPriorityBusy(routeClass) || !limiter.tryAcquire()) {
+            rejected.get(routeClass).increment();
+            return reject(exchange.getResponse());
+        }
+        long start = System.nanoTime();
+        // La latencia se mide hasta que empieza la respuesta: en los flujos NDJSON o CSV la duración total depende
+        // del tamaño y del consumidor, no de la salud del servicio. El hueco sí se ocupa hasta el final.
+        AtomicLong committedAt = new AtomicLong();
+        exchange.getResponse().beforeCommit(() -> {
+            committedAt.compareAndSet(0, System.nanoTime());
+            return Mono.empty();
+        });
+        // Los errores 4xx (validación) son del llamador, no señal de saturación
+        AtomicBoolean failed = new AtomicBoolean();
+        return chain.filter(exchange)
+                .doOnError(error -> failed.set(!(error instanceof ResponseStatusException statusError)
+                        || statusError.getStatusCode().is5xxServerError()))
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.cancel();
+                        return;
+                    }
+                    long end = committedAt.get() != 0 ? committedAt.get() : System.nanoTime();
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    limiter.release(end - start, failed.get() || status != null && status.is5xxServerError());
+                });
+    }
+
+    static RouteClass classify(ServerWebExchange exchange) {
+        if (exchange.getRequest().getMethod() == HttpMethod.OPTIONS) {
+            return null;
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        for (Map.Entry<PathPattern, RouteClass> route : ROUTES) {
+            if (route.getKey().matches(path)) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    private boolean higherPriorityBusy(RouteClass routeClass) {
+        for (RouteClass higher : RouteClass.values()) {
+            if (higher == routeClass) {
+                return false;
+            }
+            if (limiters.get(higher).isBusy(properties.getPriorityHeadroom())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(rejectionBody)));
+    }
+}
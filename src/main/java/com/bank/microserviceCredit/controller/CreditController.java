@@ -1,10 +1,19 @@
 package com.bank.microserviceCredit.controller;
 
 
+import com.bank.microserviceCredit.Model.api.credit.BulkCreditResultDto;
 import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CreditReportSummaryDto;
 import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.api.credit.CreditRollupDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerPortfolioDto;
+import com.bank.microserviceCredit.Model.api.credit.PostingRequest;
+import com.bank.microserviceCredit.Model.api.credit.PostingResultDto;
+import com.bank.microserviceCredit.Model.api.shared.PageDto;
 import com.bank.microserviceCredit.Model.api.shared.ResponseDto;
 import com.bank.microserviceCredit.Model.api.shared.ResponseDtoBuilder;
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
 import com.bank.microserviceCredit.business.service.ICreditService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,7 +21,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -24,6 +38,7 @@ import java.util.List;
 public class CreditController {
 
     private final ICreditService creditService;
+    private final ICreditRollupService rollupService;
     @Operation(summary = "Crear crédito", description = "Crea un nuevo crédito con los datos proporcionados")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Crédito creado con éxito",
@@ -39,6 +54,19 @@ public class CreditController {
                         ResponseDtoBuilder.error("Error al crear el crédito: " + e.getMessage())
                 ));
     }
+    @Operation(summary = "Crear créditos en lote",
+            description = "Crea créditos a partir de un arreglo JSON o un flujo NDJSON y devuelve el resultado de cada elemento")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote procesado; revisar el estado de cada elemento"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BulkCreditResultDto> createCredits(@RequestBody Flux<CreditRequest> requests) {
+        return creditService.createCredits(requests);
+    }
     @Operation(summary = "Obtener crédito por ID", description = "Obtiene los detalles de un crédito específico por su ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Crédito encontrado",
@@ -58,18 +86,50 @@ public class CreditController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseDto<List<CreditDto>>> getAllCredits() {
         return creditService.findAll()  // Obtiene el Flux<CreditDto>
                 .collectList()  // Convierte el Flux a Mono<List<CreditDto>>
                 .map(creditList -> ResponseDtoBuilder.success(creditList, "Lista de créditos obtenida con éxito"));
     }
+    @Operation(summary = "Obtener créditos paginados",
+            description = "Obtiene una página de créditos ordenada por fecha de creación; usar nextCursor para pedir la siguiente")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de créditos obtenida con éxito",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(params = "size", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseDto<PageDto<CreditDto>>> getCreditsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer size) {
+        return creditService.findPage(cursor, size)
+                .map(page -> ResponseDtoBuilder.success(page, "Página de créditos obtenida con éxito"))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseDtoBuilder.error(e.getMessage())));
+    }
+    // Seguir nextCursor sin size sigue paginando (con credit.pagination.default-size) en lugar de devolver la lista completa
+    @Operation(hidden = true)
+    @GetMapping(params = {"cursor", "!size"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseDto<PageDto<CreditDto>>> getCreditsPageByCursor(@RequestParam String cursor) {
+        return getCreditsPage(cursor, null);
+    }
+    @Operation(summary = "Transmitir todos los créditos",
+            description = "Transmite los créditos uno a uno desde el cursor de Mongo (application/x-ndjson o text/event-stream), sin acumularlos en memoria")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flujo de créditos iniciado"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CreditDto> streamAllCredits() {
+        return creditService.findAll();
+    }
     @Operation(summary = "Actualizar crédito", description = "Actualiza los datos de un crédito existente por su ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Crédito actualizado con éxito",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "Crédito no encontrado"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "409", description = "El crédito cambió de versión desde que se leyó (version en la solicitud)"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @PutMapping("/{id}")
@@ -78,6 +138,39 @@ public class CreditController {
                 .map(credit -> ResponseDtoBuilder.success(credit, "Crédito actualizado con éxito"))
                 .switchIfEmpty(Mono.just(ResponseDtoBuilder.notFound("Crédito no encontrado")));
     }
+    @Operation(summary = "Registrar cargo o pago",
+            description = "Aplica un cargo (CHARGE) o pago (PAYMENT) de forma atómica sin superar la línea ni dejar saldo negativo; "
+                    + "reenviar la misma idempotencyKey devuelve el resultado como DUPLICATE sin aplicarlo otra vez")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Movimiento aplicado o ya aplicado anteriormente",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Crédito no encontrado"),
+            @ApiResponse(responseCode = "422", description = "Movimiento inválido o fuera de la línea / del saldo"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping("/{id}/postings")
+    public Mono<ResponseDto<PostingResultDto>> post(@PathVariable String id, @RequestBody PostingRequest request) {
+        return creditService.post(id, request)
+                .map(result -> switch (result.getStatus()) {
+                    case "APPLIED" -> ResponseDtoBuilder.success(result, "Movimiento aplicado con éxito");
+                    case "DUPLICATE" -> ResponseDtoBuilder.success(result, "Movimiento ya aplicado anteriormente");
+                    case "NOT_FOUND" -> ResponseDtoBuilder.notFound(result.getMessage());
+                    default -> throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, result.getMessage());
+                });
+    }
+    @Operation(summary = "Registrar cargos y pagos en lote",
+            description = "Recibe un arreglo JSON o un flujo NDJSON de movimientos con creditId; los de un mismo crédito se aplican "
+                    + "en una sola escritura y se devuelve el resultado de cada uno en el orden de entrada")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote procesado; revisar el estado de cada movimiento"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping(value = "/postings/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PostingResultDto> postBatch(@RequestBody Flux<PostingRequest> requests) {
+        return creditService.postBatch(requests);
+    }
     @Operation(summary = "Eliminar crédito", description = "Elimina un crédito específico por su ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Crédito eliminado con éxito",
@@ -88,8 +181,9 @@ public class CreditController {
     @DeleteMapping("/{id}")
     public Mono<ResponseDto<Object>> deleteCredit(@PathVariable String id) {
         return creditService.deleteById(id)
-                .then(Mono.just(ResponseDtoBuilder.success(null, "Crédito eliminado con éxito")))
-                .switchIfEmpty(Mono.just(ResponseDtoBuilder.notFound("Crédito no encontrado")));
+                .map(deleted -> deleted
+                        ? ResponseDtoBuilder.success(null, "Crédito eliminado con éxito")
+                        : ResponseDtoBuilder.notFound("Crédito no encontrado"));
     }
 
     @GetMapping("/customer/{customerId}/has-active-card")
@@ -109,13 +203,38 @@ public class CreditController {
         return creditService.hasOverdueDebts(id);
     }
 
+    @Operation(summary = "Validar elegibilidad de varios clientes",
+            description = "Devuelve, por cliente, si tiene tarjeta activa y si tiene deudas vencidas; los resultados se transmiten a medida que se calculan")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Validación completada"),
+            @ApiResponse(responseCode = "400", description = "Demasiados clientes en la petición"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping(value = "/customers/eligibility",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CustomerEligibilityDto> checkEligibility(@RequestBody List<String> customerIds) {
+        return creditService.checkEligibility(customerIds);
+    }
+
+    @Operation(summary = "Resumen de la cartera de un cliente",
+            description = "Créditos por tipo, saldo y línea totales, tarjeta activa, deudas vencidas y vencimiento más próximo")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resumen obtenido con éxito"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/customer/{customerId}/portfolio")
+    public Mono<ResponseDto<CustomerPortfolioDto>> getPortfolio(@PathVariable String customerId) {
+        return creditService.getPortfolio(customerId)
+                .map(portfolio -> ResponseDtoBuilder.success(portfolio, "Cartera del cliente obtenida"));
+    }
+
     @Operation(summary = "Reporte de créditos", description = "Genera un reporte de créditos por intervalo de tiempo")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Reporte generado con éxito"),
             @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @GetMapping("/report")
+    @GetMapping(value = "/report", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseDto<List<CreditDto>>> getCreditReport(
             @RequestParam String startDate,
             @RequestParam String endDate) {
@@ -123,6 +242,98 @@ public class CreditController {
                 .map(report -> ResponseDtoBuilder.success(report, "Reporte generado con éxito"));
     }
 
+    @Operation(summary = "Reporte de créditos paginado", description = "Genera el reporte por intervalo de tiempo página a página")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página del reporte generada con éxito"),
+            @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(value = "/report", params = "size", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseDto<PageDto<CreditDto>>> getCreditReportPage(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer size) {
+        return creditService.generateReportPage(startDate, endDate, cursor, size)
+                .map(page -> ResponseDtoBuilder.success(page, "Reporte generado con éxito"))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseDtoBuilder.error(e.getMessage())));
+    }
+
+    // Igual que getCreditsPageByCursor: un cursor sin size se pagina con el tamaño por defecto
+    @Operation(hidden = true)
+    @GetMapping(value = "/report", params = {"cursor", "!size"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseDto<PageDto<CreditDto>>> getCreditReportPageByCursor(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam String cursor) {
+        return getCreditReportPage(startDate, endDate, cursor, null);
+    }
+
+    @Operation(summary = "Resumen del reporte de créditos",
+            description = "Cantidad, saldo, línea y utilización por día y tipo, agregados en la base de datos")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resumen generado con éxito"),
+            @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/report/summary")
+    public Mono<ResponseDto<List<CreditReportSummaryDto>>> getCreditReportSummary(
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        return creditService.summarizeReport(startDate, endDate)
+                .collectList()
+                .map(summary -> ResponseDtoBuilder.success(summary, "Resumen generado con éxito"));
+    }
+
+    @Operation(summary = "Totales precalculados por intervalo",
+            description = "Lee los totales por día u hora (granularity=DAY|HOUR) y tipo mantenidos en credit_rollups, sin recorrer los créditos")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Totales obtenidos con éxito"),
+            @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/report/rollups")
+    public Mono<ResponseDto<List<CreditRollupDto>>> getCreditRollups(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "DAY") String granularity) {
+        return rollupService.findRollups(startDate, endDate, granularity)
+                .collectList()
+                .map(rollups -> ResponseDtoBuilder.success(rollups, "Totales obtenidos con éxito"))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseDtoBuilder.error(e.getMessage())));
+    }
+
+    @Operation(summary = "Exportar reporte de créditos en CSV",
+            description = "Transmite el reporte por intervalo de tiempo como CSV, fila a fila desde el cursor")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportación iniciada"),
+            @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(value = "/report/export", produces = "text/csv")
+    public Mono<Void> exportCreditReport(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            ServerHttpResponse response) {
+        response.getHeaders().setContentType(MediaType.parseMediaType("text/csv;charset=UTF-8"));
+        response.getHeaders().set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"credits-report.csv\"");
+        return response.writeWith(creditService.exportReportCsv(startDate, endDate, response.bufferFactory()));
+    }
+
+    @Operation(summary = "Transmitir reporte de créditos",
+            description = "Transmite el reporte por intervalo de tiempo elemento a elemento (application/x-ndjson o text/event-stream)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flujo del reporte iniciado"),
+            @ApiResponse(responseCode = "400", description = "Parámetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(value = "/report", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CreditDto> streamCreditReport(
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        return creditService.streamReport(startDate, endDate);
+    }
+
     @Operation(summary = "Obtener créditos de un cliente", description = "Devuelve todos los créditos asociados a un cliente específico.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Créditos obtenidos con éxito"),
@@ -136,5 +347,30 @@ public class CreditController {
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("No se encontraron créditos para este cliente")));
     }
 
+    @Operation(summary = "Obtener créditos de un cliente paginados",
+            description = "Devuelve los créditos de un cliente página a página; usar nextCursor para pedir la siguiente")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de créditos obtenida con éxito"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(value = "/customer/{customerId}", params = "size")
+    public Mono<ResponseDto<PageDto<CreditDto>>> getCreditsPageByCustomerId(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer size) {
+        return creditService.findPageByCustomerId(customerId, cursor, size)
+                .map(page -> ResponseDtoBuilder.success(page, "Créditos encontrados"))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseDtoBuilder.error(e.getMessage())));
+    }
+
+    // Igual que getCreditsPageByCursor: un cursor sin size se pagina con el tamaño por defecto
+    @Operation(hidden = true)
+    @GetMapping(value = "/customer/{customerId}", params = {"cursor", "!size"})
+    public Mono<ResponseDto<PageDto<CreditDto>>> getCreditsPageByCustomerIdAndCursor(
+            @PathVariable String customerId,
+            @RequestParam String cursor) {
+        return getCreditsPageByCustomerId(customerId, cursor, null);
+    }
+
 
 }
@@ -0,0 +1,372 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.api.shared.PageDto;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDto;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificador JSON escrito a mano para las respuestas de lectura de créditos: CreditDto y ResponseDto con un crédito,
+ * una lista o una página de créditos. Escribe directamente en el DataBuffer, sin reflexión ni objetos intermedios;
+ * el resto de tipos siguen pasando por Jackson.
+ * <p>
+ * La salida es la misma que la de Jackson con la configuración de Spring Boot (mismo orden de campos, nulos incluidos,
+ * fechas ISO_LOCAL_DATE_TIME e importes con dos decimales); CreditJsonEncoderTests lo comprueba. Un campo nuevo en
+ * estos DTO debe añadirse también aquí.
+ */
+public class CreditJsonEncoder extends AbstractEncoder<Object> implements HttpMessageEncoder<Object> {
+
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+
+    // Tamaño habitual de un crédito codificado; el DataBuffer crece si hace falta
+    private static final int CREDIT_SIZE_HINT = 320;
+    private static final int RESPONSE_SIZE_HINT = 96;
+
+    private static final byte[] CREDIT_ID = ascii("{\"id\":");
+    private static final byte[] CUSTOMER_ID = ascii(",\"customerId\":");
+    private static final byte[] TYPE = ascii(",\"type\":");
+    private static final byte[] CREDIT_LIMIT = ascii(",\"creditLimit\":");
+    private static final byte[] BALANCE = ascii(",\"balance\":");
+    private static final byte[] ACTIVE = ascii(",\"active\":");
+    private static final byte[] CREATED_AT = ascii(",\"createdAt\":");
+    private static final byte[] UPDATED_AT = ascii(",\"updatedAt\":");
+    private static final byte[] DUE_DATE = ascii(",\"dueDate\":");
+    private static final byte[] VERSION = ascii(",\"version\":");
+    private static final byte[] DATA = ascii("{\"data\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] ITEMS = ascii("{\"items\":");
+    private static final byte[] NEXT_CURSOR = ascii(",\"nextCursor\":");
+    private static final byte[] SIZE = ascii(",\"size\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    // Formas de respuesta que sabe escribir; se resuelven por el tipo declarado en el controlador
+    private enum Shape { CREDIT, RESPONSE_CREDIT, RESPONSE_LIST, RESPONSE_PAGE }
+
+    public CreditJsonEncoder() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return super.canEncode(elementType, mimeType) && isUtf8(mimeType) && shapeOf(elementType) != null;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        Shape shape = shapeOf(elementType);
+        if (input instanceof Mono) {
+            return Mono.from(input).map(value -> write(bufferFactory, shape, value, null, null)).flux();
+        }
+        if (mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+            // Un valor por línea, cada uno en su propio buffer para que se envíe en cuanto llega
+            return Flux.from(input).map(value -> write(bufferFactory, shape, value, null, (byte) '\n'));
+        }
+        // Arreglo JSON: el separador va delante de cada elemento salvo el primero, como en Jackson
+        return Flux.concat(
+                Mono.fromCallable(() -> bufferFactory.allocateBuffer(1).write((byte) '[')),
+                Flux.from(input).index().map(indexed ->
+                        write(bufferFactory, shape, indexed.getT2(), indexed.getT1() > 0 ? (byte) ',' : null, null)),
+                Mono.fromCallable(() -> bufferFactory.allocateBuffer(1).write((byte) ']')));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return write(bufferFactory, shapeOf(valueType), value, null, null);
+    }
+
+    private static DataBuffer write(DataBufferFactory bufferFactory, Shape shape, Object value, Byte prefix, Byte suffix) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(sizeHint(shape, value));
+        if (prefix != null) {
+            buffer.write(prefix);
+        }
+        switch (shape) {
+            case CREDIT -> writeCredit(buffer, (CreditDto) value);
+            case RESPONSE_CREDIT, RESPONSE_LIST, RESPONSE_PAGE -> writeResponse(buffer, shape, (ResponseDto<?>) value);
+        }
+        if (suffix != null) {
+            buffer.write(suffix);
+        }
+        return buffer;
+    }
+
+    private static int sizeHint(Shape shape, Object value) {
+        if (shape == Shape.RESPONSE_LIST && value instanceof ResponseDto<?> response && response.getData() instanceof List<?> list) {
+            return RESPONSE_SIZE_HINT + list.size() * CREDIT_SIZE_HINT;
+        }
+        if (shape == Shape.RESPONSE_PAGE && value instanceof ResponseDto<?> response && response.getData() instanceof PageDto<?> page
+                && page.getItems() != null) {
+            return RESPONSE_SIZE_HINT * 2 + page.getItems().size() * CREDIT_SIZE_HINT;
+        }
+        return shape == Shape.CREDIT ? CREDIT_SIZE_HINT : RESPONSE_SIZE_HINT + CREDIT_SIZE_HINT;
+    }
+
+    private static Shape shapeOf(ResolvableType type) {
+        Class<?> rawType = type.toClass();
+        if (rawType == CreditDto.class) {
+            return Shape.CREDIT;
+        }
+        if (rawType != ResponseDto.class) {
+            return null;
+        }
+        ResolvableType data = type.getGeneric(0);
+        Class<?> dataType = data.toClass();
+        if (dataType == CreditDto.class) {
+            return Shape.RESPONSE_CREDIT;
+        }
+        if (dataType == List.class && data.getGeneric(0).toClass() == CreditDto.class) {
+            return Shape.RESPONSE_LIST;
+        }
+        if (dataType == PageDto.class && data.getGeneric(0).toClass() == CreditDto.class) {
+            return Shape.RESPONSE_PAGE;
+        }
+        return null;
+    }
+
+    private static boolean isUtf8(MimeType mimeType) {
+        return mimeType == null || mimeType.getCharset() == null || StandardCharsets.UTF_8.equals(mimeType.getCharset());
+    }
+
+    private static void writeResponse(DataBuffer buffer, Shape shape, ResponseDto<?> response) {
+        buffer.write(DATA);
+        Object data = response.getData();
+        if (data == null) {
+            buffer.write(NULL);
+        } else if (shape == Shape.RESPONSE_CREDIT) {
+            writeCredit(buffer, (CreditDto) data);
+        } else if (shape == Shape.RESPONSE_LIST) {
+            writeCredits(buffer, (List<?>) data);
+        } else {
+            PageDto<?> page = (PageDto<?>) data;
+            buffer.write(ITEMS);
+            writeCredits(buffer, page.getItems());
+            buffer.write(NEXT_CURSOR);
+            writeString(buffer, page.getNextCursor());
+            buffer.write(SIZE);
+            writeLong(buffer, page.getSize());
+            buffer.write((byte) '}');
+        }
+        buffer.write(MESSAGE);
+        writeString(buffer, response.getMessage());
+        buffer.write(STATUS);
+        writeString(buffer, response.getStatus());
+        buffer.write((byte) '}');
+    }
+
+    private static void writeCredits(DataBuffer buffer, List<?> credits) {
+        if (credits == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '[');
+        for (int i = 0; i < credits.size(); i++) {
+            if (i > 0) {
+                buffer.write((byte) ',');
+            }
+            writeCredit(buffer, (CreditDto) credits.get(i));
+        }
+        buffer.write((byte) ']');
+    }
+
+    private static void writeCredit(DataBuffer buffer, CreditDto credit) {
+        if (credit == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write(CREDIT_ID);
+        writeString(buffer, credit.getId());
+        buffer.write(CUSTOMER_ID);
+        writeString(buffer, credit.getCustomerId());
+        buffer.write(TYPE);
+        writeString(buffer, credit.getType());
+        buffer.write(CREDIT_LIMIT);
+        writeMoney(buffer, credit.getCreditLimit());
+        buffer.write(BALANCE);
+        writeMoney(buffer, credit.getBalance());
+        buffer.write(ACTIVE);
+        buffer.write(credit.isActive() ? TRUE : FALSE);
+        buffer.write(CREATED_AT);
+        writeDateTime(buffer, credit.getCreatedAt());
+        buffer.write(UPDATED_AT);
+        writeDateTime(buffer, credit.getUpdatedAt());
+        buffer.write(DUE_DATE);
+        writeDateTime(buffer, credit.getDueDate());
+        buffer.write(VERSION);
+        if (credit.getVersion() == null) {
+            buffer.write(NULL);
+        } else {
+            writeLong(buffer, credit.getVersion());
+        }
+        buffer.write((byte) '}');
+    }
+
+    // Mismo escape que Jackson: comillas, barra invertida, caracteres de control y suplentes UTF-16
+    // (los emoji salen como dos escapes \\u); el resto va tal cual en UTF-8
+    private static void writeString(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAscii(buffer, c);
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | c >> 6)).write((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                writeUnicodeEscape(buffer, c);
+            } else {
+                buffer.write((byte) (0xE0 | c >> 12)).write((byte) (0x80 | c >> 6 & 0x3F)).write((byte) (0x80 | c & 0x3F));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeAscii(DataBuffer buffer, char c) {
+        if (c == '"' || c == '\\') {
+            buffer.write((byte) '\\').write((byte) c);
+            return;
+        }
+        if (c >= 0x20) {
+            buffer.write((byte) c);
+            return;
+        }
+        byte escape = switch (c) {
+            case '\b' -> 'b';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\f' -> 'f';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+        if (escape != 0) {
+            buffer.write((byte) '\\').write(escape);
+        } else {
+            writeUnicodeEscape(buffer, c);
+        }
+    }
+
+    private static void writeUnicodeEscape(DataBuffer buffer, char c) {
+        buffer.write((byte) '\\').write((byte) 'u')
+                .write(HEX[c >> 12]).write(HEX[c >> 8 & 0xF]).write(HEX[c >> 4 & 0xF]).write(HEX[c & 0xF]);
+    }
+
+    // Igual que el BigDecimal de Money.toBigDecimal: siempre dos decimales (10000.00, -0.05)
+    private static void writeMoney(DataBuffer buffer, Money amount) {
+        if (amount == null) {
+            buffer.write(NULL);
+            return;
+        }
+        long minorUnits = amount.minorUnits();
+        if (minorUnits == Long.MIN_VALUE) {
+            buffer.write(ascii(amount.toString()));
+            return;
+        }
+        if (minorUnits < 0) {
+            buffer.write((byte) '-');
+            minorUnits = -minorUnits;
+        }
+        writeLong(buffer, minorUnits / 100);
+        buffer.write((byte) '.');
+        writeDigits(buffer, (int) (minorUnits % 100), 2);
+    }
+
+    // DateTimeFormatter.ISO_LOCAL_DATE_TIME, el formato de Jackson con WRITE_DATES_AS_TIMESTAMPS desactivado
+    private static void writeDateTime(DataBuffer buffer, LocalDateTime value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Fuera de cuatro cifras el formato lleva signo; no compensa replicarlo
+            buffer.write((byte) '"').write(ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value))).write((byte) '"');
+            return;
+        }
+        buffer.write((byte) '"');
+        writeDigits(buffer, year, 4);
+        buffer.write((byte) '-');
+        writeDigits(buffer, value.getMonthValue(), 2);
+        buffer.write((byte) '-');
+        writeDigits(buffer, value.getDayOfMonth(), 2);
+        buffer.write((byte) 'T');
+        writeDigits(buffer, value.getHour(), 2);
+        buffer.write((byte) ':');
+        writeDigits(buffer, value.getMinute(), 2);
+        buffer.write((byte) ':');
+        writeDigits(buffer, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            // Fracción sin ceros a la derecha: .5, .123, .000000001
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer.write((byte) '.');
+            writeDigits(buffer, nano, digits);
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeLong(DataBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.write(ascii(Long.toString(value)));
+            return;
+        }
+        if (value < 0) {
+            buffer.write((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    // Cifras con ceros a la izquierda hasta el ancho indicado
+    private static void writeDigits(DataBuffer buffer, int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
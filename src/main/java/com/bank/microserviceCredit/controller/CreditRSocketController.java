@@ -0,0 +1,56 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.business.service.ICreditService;
+import com.bank.microserviceCredit.configuration.EligibilityProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de crédito para los servicios internos sobre RSocket (TCP). Los datos viajan en CBOR, el primer
+ * codificador que registra Spring Boot, y sin el sobre ResponseDto: una conexión se reutiliza para todas las
+ * solicitudes y cada respuesta es solo el valor.
+ */
+@Controller
+@MessageMapping("credits")
+@RequiredArgsConstructor
+public class CreditRSocketController {
+
+    private final ICreditService creditService;
+    private final EligibilityProperties eligibilityProperties;
+
+    // request-response
+    @MessageMapping("customer.{customerId}.has-active-card")
+    public Mono<Boolean> hasActiveCreditCard(@DestinationVariable String customerId) {
+        return creditService.hasActiveCreditCard(customerId);
+    }
+
+    // request-response
+    @MessageMapping("customer.{customerId}.has-overdue-debts")
+    public Mono<Boolean> hasOverdueDebts(@DestinationVariable String customerId) {
+        return creditService.hasOverdueDebts(customerId);
+    }
+
+    // request-stream: un cliente sin créditos recibe un flujo vacío
+    @MessageMapping("customer.{customerId}")
+    public Flux<CreditDto> getCreditsByCustomerId(@DestinationVariable String customerId) {
+        return creditService.findByCustomerId(customerId);
+    }
+
+    /**
+     * request-channel: el llamador envía IDs de cliente mientras lee los resultados. Los IDs se agrupan por lote
+     * de elegibilidad (o por la espera channelFlush si llegan despacio) y se responden en el orden recibido;
+     * un ID repetido dentro del mismo lote se responde una sola vez.
+     */
+    @MessageMapping("customers.eligibility")
+    public Flux<CustomerEligibilityDto> checkEligibility(Flux<String> customerIds) {
+        return customerIds
+                .bufferTimeout(eligibilityProperties.getBatchSize(), eligibilityProperties.getChannelFlush())
+                .flatMapSequential(creditService::checkEligibility, eligibilityProperties.getConcurrency());
+    }
+}
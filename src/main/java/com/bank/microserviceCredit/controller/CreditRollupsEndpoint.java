@@ -0,0 +1,27 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Operación de mantenimiento para reconstruir credit_rollups (POST /actuator/creditrollups), fuera de la API pública.
+ * No se expone por defecto: hay que añadir "creditrollups" a management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "creditrollups")
+@RequiredArgsConstructor
+public class CreditRollupsEndpoint {
+
+    private final ICreditRollupService rollupService;
+
+    @WriteOperation
+    public Mono<Map<String, String>> rebuild() {
+        return rollupService.rebuild().thenReturn(Map.of("message", "Totales reconstruidos con éxito"));
+    }
+}
@@ -3,7 +3,7 @@ package com.bank.microserviceCredit;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"spring.rsocket.server.port=0", "credit.mongo-indexes.enabled=false"})
 class 	MicroserviceCreditApplicationTests {
 
 	@Test
@@ -0,0 +1,99 @@
+package com.bank.microserviceCredit.business.cache;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.configuration.CreditCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditCacheTests {
+
+    private final InMemoryCreditInvalidationBus bus = new InMemoryCreditInvalidationBus();
+    private final CreditCache replicaA = new CreditCache(new CreditCacheProperties(), bus);
+    private final CreditCache replicaB = new CreditCache(new CreditCacheProperties(), bus);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void subscribe() {
+        replicaA.subscribe();
+        replicaB.subscribe();
+    }
+
+    @AfterEach
+    void unsubscribe() {
+        replicaA.unsubscribe();
+        replicaB.unsubscribe();
+    }
+
+    @Test
+    void servesRepeatedLookupsFromCacheAndExposesHitMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        replicaA.bindTo(registry);
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(replicaA.getById("c1", this::load)).expectNextCount(1).verifyComplete();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "credits-by-id").tag("result", "hit").functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void writeOnOneReplicaInvalidatesTheOthers() {
+        replicaB.getById("c1", this::load).block();
+        replicaB.getByCustomerId("customer-1", customerId -> Flux.just(credit(0))).collectList().block();
+
+        replicaA.written(credit(1)).block();
+
+        // La réplica B vuelve a cargar el crédito; la réplica A ya tiene la versión escrita
+        replicaB.getById("c1", this::load).block();
+        assertThat(loads).hasValue(2);
+        StepVerifier.create(replicaA.getById("c1", this::load)).expectNextMatches(credit -> credit.getVersion() == 1L).verifyComplete();
+        StepVerifier.create(replicaB.getByCustomerId("customer-1", customerId -> Flux.just(credit(1), credit(2))))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void keepsNewerVersionWhenWritesCompleteOutOfOrder() {
+        replicaA.written(credit(5)).block();
+        replicaA.written(credit(4)).block();
+
+        StepVerifier.create(replicaA.getById("c1", this::load)).expectNextMatches(credit -> credit.getVersion() == 5L).verifyComplete();
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void doesNotCacheMissingCredits() {
+        replicaA.getById("missing", id -> Mono.<CreditDto>empty().doOnSubscribe(s -> loads.incrementAndGet())).block();
+        replicaA.getById("missing", id -> Mono.<CreditDto>empty().doOnSubscribe(s -> loads.incrementAndGet())).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Mono<CreditDto> load(String id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return credit(0);
+        });
+    }
+
+    private static CreditDto credit(long version) {
+        return CreditDto.builder()
+                .id("c1")
+                .customerId("customer-1")
+                .type("BUSINESS")
+                .balance(Money.of(100.0 + version))
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.microserviceCredit.business.cache;
+
+import com.bank.microserviceCredit.configuration.CustomerCacheProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerVerificationCacheTests {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final CustomerVerificationCache cache = new CustomerVerificationCache(properties(), nanos::get);
+
+    @Test
+    void coalescesConcurrentLookupsIntoOneRemoteCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<Boolean> response = Sinks.one();
+
+        Flux<Boolean> lookups = Flux.range(0, 50)
+                .flatMap(i -> cache.get("customer-1", id -> {
+                    calls.incrementAndGet();
+                    return response.asMono();
+                }));
+
+        StepVerifier.create(lookups)
+                .then(() -> response.tryEmitValue(true))
+                .expectNextCount(50)
+                .verifyComplete();
+
+        assertThat(calls).hasValue(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(49);
+    }
+
+    @Test
+    void expiresNegativeEntriesBeforePositiveOnes() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("known", id -> count(calls, true)).block();
+        cache.get("unknown", id -> count(calls, false)).block();
+
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get("known", id -> count(calls, true)).block();
+        cache.get("unknown", id -> count(calls, false)).block();
+
+        // Solo el resultado negativo caducó y se volvió a consultar
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void doesNotCacheFailedLookups() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.get("customer-2", id -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("servicio caído"));
+        })).verifyError(IllegalStateException.class);
+
+        StepVerifier.create(cache.get("customer-2", id -> count(calls, true)))
+                .expectNext(true)
+                .verifyComplete();
+        assertThat(calls).hasValue(2);
+    }
+
+    private static Mono<Boolean> count(AtomicInteger calls, boolean exists) {
+        return Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return exists;
+        });
+    }
+
+    private static CustomerCacheProperties properties() {
+        CustomerCacheProperties properties = new CustomerCacheProperties();
+        properties.setTtl(Duration.ofMinutes(5));
+        properties.setNegativeTtl(Duration.ofSeconds(10));
+        return properties;
+    }
+}
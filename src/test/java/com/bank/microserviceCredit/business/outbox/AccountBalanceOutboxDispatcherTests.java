@@ -0,0 +1,121 @@
+package com.bank.microserviceCredit.business.outbox;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.business.repository.AccountBalanceSync;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.configuration.OutboxProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountBalanceOutboxDispatcherTests {
+
+    private static final Duration ACCOUNT_SERVICE_LATENCY = Duration.ofMillis(200);
+    private static final int PENDING_ACCOUNTS = 64;
+
+    private final AtomicInteger received = new AtomicInteger();
+    private final Queue<AccountBalanceSync> pending = new ConcurrentLinkedQueue<>();
+    private final ICreditRepository creditRepository = mock(ICreditRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer accountService;
+
+    @BeforeEach
+    void startSlowAccountService() {
+        // Servicio de cuentas local que tarda 200 ms por petición y falla para la cuenta "broken"
+        accountService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.put("/accounts/{id}", (request, response) -> request.receive().then(
+                        Mono.delay(ACCOUNT_SERVICE_LATENCY).then(Mono.defer(() -> {
+                            received.incrementAndGet();
+                            int status = "broken".equals(request.param("id")) ? 503 : 200;
+                            return response.status(status).send().then();
+                        })))))
+                .bindNow();
+        // Cada reserva entrega un saldo pendiente distinto, como el findAndModify real
+        when(creditRepository.claimAccountSync(any(), any())).thenAnswer(invocation -> Mono.fromSupplier(pending::poll));
+        when(creditRepository.acknowledgeAccountSync(any(), any())).thenReturn(Mono.empty());
+        when(creditRepository.rescheduleAccountSync(any(), any())).thenReturn(Mono.empty());
+    }
+
+    @AfterEach
+    void stopAccountService() {
+        accountService.disposeNow();
+    }
+
+    @Test
+    void sendsPendingBalancesConcurrentlyDespiteSlowAccountService() {
+        IntStream.range(0, PENDING_ACCOUNTS).forEach(i -> pending.add(sync("account-" + i, 0)));
+
+        long start = System.nanoTime();
+        dispatcher(16).drain().block(Duration.ofSeconds(10));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(received).hasValue(PENDING_ACCOUNTS);
+        verify(creditRepository, times(PENDING_ACCOUNTS)).acknowledgeAccountSync(argThat(sync -> sync.sequence() == 7L), any());
+        // En serie serían 64 x 200 ms = 12,8 s; con 16 envíos simultáneos son unas 4 tandas
+        assertThat(elapsed).isLessThan(ACCOUNT_SERVICE_LATENCY.multipliedBy(PENDING_ACCOUNTS / 4));
+    }
+
+    @Test
+    void reschedulesFailedSendsWithoutAcknowledging() {
+        AccountBalanceSync broken = sync("broken", 3);
+        pending.add(broken);
+
+        dispatcher(4).drain().block(Duration.ofSeconds(5));
+
+        verify(creditRepository, never()).acknowledgeAccountSync(any(), any());
+        verify(creditRepository).rescheduleAccountSync(eq(broken), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("credit.outbox.dispatched", "outcome", "rescheduled").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void claimsEachBalanceWithALeaseBeforeSendingIt() {
+        pending.add(sync("account-1", 0));
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> claimedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        dispatcher(1).drain().block(Duration.ofSeconds(5));
+
+        // Una reserva con saldo y otra vacía que termina el ciclo
+        verify(creditRepository, times(2)).claimAccountSync(now.capture(), claimedUntil.capture());
+        assertThat(Duration.between(now.getValue(), claimedUntil.getValue())).isEqualTo(new OutboxProperties().getLease());
+        assertThat(received).hasValue(1);
+    }
+
+    private AccountBalanceOutboxDispatcher dispatcher(int concurrency) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(PENDING_ACCOUNTS * 2);
+        properties.setConcurrency(concurrency);
+        WebClient accountWebClient = WebClient.builder()
+                .baseUrl("http://localhost:" + accountService.port())
+                .build();
+        return new AccountBalanceOutboxDispatcher(creditRepository, accountWebClient, properties, meterRegistry);
+    }
+
+    private static AccountBalanceSync sync(String accountId, int attempts) {
+        return new AccountBalanceSync(accountId, Money.of(150.0), 7L, attempts, "claim-" + accountId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.bank.microserviceCredit.business.overdue;
+
+import com.bank.microserviceCredit.Model.entity.SweepCheckpointEntity;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.repository.ISweepCheckpointRepository;
+import com.bank.microserviceCredit.configuration.OverdueSweepProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OverdueDebtSweeperTests {
+
+    private final ICreditRepository creditRepository = mock(ICreditRepository.class);
+    private final ISweepCheckpointRepository checkpointRepository = mock(ISweepCheckpointRepository.class);
+    private final OverdueSweepProperties properties = new OverdueSweepProperties();
+    private OverdueDebtSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        properties.setPartitionSize(Duration.ofDays(1));
+        sweeper = new OverdueDebtSweeper(creditRepository, checkpointRepository, properties, new SimpleMeterRegistry());
+        when(checkpointRepository.advance(eq(OverdueDebtSweeper.CHECKPOINT), any())).thenReturn(Mono.empty());
+        when(creditRepository.clearPostponedOverdue(any())).thenReturn(Mono.just(0L));
+        when(creditRepository.markLateOverdue(any())).thenReturn(Mono.just(0L));
+    }
+
+    @Test
+    void resumesFromCheckpointAndAdvancesItInOrderPartitionByPartition() {
+        LocalDateTime checkpoint = LocalDateTime.now().minusDays(3).plusHours(1);
+        when(checkpointRepository.findById(OverdueDebtSweeper.CHECKPOINT))
+                .thenReturn(Mono.just(SweepCheckpointEntity.builder().id(OverdueDebtSweeper.CHECKPOINT).sweptUntil(checkpoint).build()));
+        // La primera partición termina la última: el punto de control no debe adelantarla
+        when(creditRepository.markOverdue(any(), any())).thenAnswer(invocation -> checkpoint.equals(invocation.getArgument(0))
+                ? Mono.just(5L).delayElement(Duration.ofMillis(50))
+                : Mono.just(5L));
+
+        StepVerifier.create(sweeper.sweep()).expectNext(15L).verifyComplete();
+
+        verify(creditRepository).markOverdue(checkpoint, checkpoint.plusDays(1));
+        ArgumentCaptor<LocalDateTime> advanced = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(checkpointRepository, times(3)).advance(eq(OverdueDebtSweeper.CHECKPOINT), advanced.capture());
+        List<LocalDateTime> values = advanced.getAllValues();
+        assertThat(values).isSorted();
+        assertThat(values.get(0)).isEqualTo(checkpoint.plusDays(1));
+        assertThat(sweeper.sweptUntil()).isEqualTo(values.get(2));
+    }
+
+    @Test
+    void firstSweepStartsAtTheEarliestDueDate() {
+        LocalDateTime earliest = LocalDateTime.now().minusHours(36);
+        when(checkpointRepository.findById(OverdueDebtSweeper.CHECKPOINT)).thenReturn(Mono.empty());
+        when(creditRepository.findEarliestDueDate()).thenReturn(Mono.just(earliest));
+        when(creditRepository.markOverdue(any(), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(sweeper.sweep()).expectNext(2L).verifyComplete();
+        verify(creditRepository).markOverdue(earliest, earliest.plusDays(1));
+    }
+
+    @Test
+    void failedPartitionStopsTheCheckpointBeforeIt() {
+        LocalDateTime checkpoint = LocalDateTime.now().minusDays(2).plusHours(1);
+        when(checkpointRepository.findById(OverdueDebtSweeper.CHECKPOINT))
+                .thenReturn(Mono.just(SweepCheckpointEntity.builder().sweptUntil(checkpoint).build()));
+        when(creditRepository.markOverdue(any(), any())).thenAnswer(invocation -> checkpoint.equals(invocation.getArgument(0))
+                ? Mono.just(1L)
+                : Mono.error(new DataAccessResourceFailureException("timeout")));
+
+        StepVerifier.create(sweeper.sweep()).expectError(DataAccessResourceFailureException.class).verify();
+        verify(checkpointRepository).advance(OverdueDebtSweeper.CHECKPOINT, checkpoint.plusDays(1));
+        assertThat(sweeper.sweptUntil()).isEqualTo(checkpoint.plusDays(1));
+    }
+
+    @Test
+    void reconcilesCreditsWrittenBehindTheCheckpointBeforeAdvancing() {
+        LocalDateTime checkpoint = LocalDateTime.now().minusHours(12);
+        when(checkpointRepository.findById(OverdueDebtSweeper.CHECKPOINT))
+                .thenReturn(Mono.just(SweepCheckpointEntity.builder().sweptUntil(checkpoint).build()));
+        // Dos créditos llegaron con un vencimiento ya barrido y a tres se les aplazó el vencimiento
+        when(creditRepository.markLateOverdue(checkpoint)).thenReturn(Mono.just(2L));
+        when(creditRepository.clearPostponedOverdue(any())).thenReturn(Mono.just(3L));
+        when(creditRepository.markOverdue(any(), any())).thenReturn(Mono.just(1L));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        sweeper = new OverdueDebtSweeper(creditRepository, checkpointRepository, properties, meterRegistry);
+
+        StepVerifier.create(sweeper.sweep()).expectNext(3L).verifyComplete();
+
+        verify(creditRepository).markLateOverdue(checkpoint);
+        assertThat(meterRegistry.counter("credit.overdue.cleared").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.counter("credit.overdue.flagged").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void disabledSweepLeavesLookupsOnTheLiveDueDateComparison() {
+        properties.setEnabled(false);
+        assertThat(sweeper.sweptUntil()).isNull();
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.microserviceCredit.business.portfolio;
+
+import com.bank.microserviceCredit.Model.api.credit.CustomerPortfolioDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.configuration.PortfolioProperties;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerPortfolioReadModelTests {
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final PortfolioProperties properties = new PortfolioProperties();
+    private CustomerPortfolioReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setReconnectBackoff(Duration.ofMillis(1));
+        readModel = new CustomerPortfolioReadModel(mongoTemplate, properties, new SimpleMeterRegistry());
+        when(mongoTemplate.executeCommand(anyString())).thenReturn(Mono.just(new Document("operationTime", new BsonTimestamp(1, 1))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.stop();
+    }
+
+    @Test
+    void loadsTheCollectionAndAnswersFromMemory() {
+        long now = System.currentTimeMillis();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(CustomerPortfolioReadModel.COLLECTION))).thenReturn(Flux.just(
+                credit("1", "customer-1", "CREDIT_CARD", true, 200.0, 1_000.0, new Date(now + DAY)),
+                credit("2", "customer-1", "PERSONAL", true, 50.0, 500.0, new Date(now - DAY)),
+                credit("3", "customer-1", "PERSONAL", true, 0.0, 500.0, new Date(now - 2 * DAY)),
+                credit("4", "customer-2", "CREDIT_CARD", false, 0.0, 300.0, null)));
+        when(mongoTemplate.changeStream(eq(CustomerPortfolioReadModel.COLLECTION), any(), eq(Document.class))).thenReturn(Flux.never());
+
+        readModel.start();
+
+        assertThat(readModel.isReady()).isTrue();
+        CustomerPortfolioDto portfolio = readModel.get("customer-1").toDto(now);
+        assertThat(portfolio.getCreditCount()).isEqualTo(3);
+        assertThat(portfolio.getCreditsByType()).containsExactlyInAnyOrderEntriesOf(Map.of("CREDIT_CARD", 1, "PERSONAL", 2));
+        assertThat(portfolio.getTotalBalance()).isEqualTo(Money.of(250.0));
+        assertThat(portfolio.getTotalCreditLimit()).isEqualTo(Money.of(2_000.0));
+        assertThat(portfolio.isHasActiveCard()).isTrue();
+        // El crédito saldado con vencimiento más antiguo no cuenta
+        assertThat(portfolio.isHasOverdueDebts()).isTrue();
+        assertThat(readModel.get("customer-2").toEligibility(now).isHasActiveCard()).isFalse();
+        assertThat(readModel.get("unknown").toDto(now).getCreditCount()).isZero();
+    }
+
+    @Test
+    void creditsMovedToAnotherCustomerOrDeletedLeaveNoTrace() {
+        readModel.upsert(credit("1", "customer-1", "CREDIT_CARD", true, 10.0, 100.0, null));
+        readModel.upsert(credit("2", "customer-1", "PERSONAL", true, 10.0, 100.0, null));
+
+        readModel.upsert(credit("1", "customer-2", "CREDIT_CARD", true, 20.0, 100.0, null));
+        readModel.remove("2");
+        readModel.remove("missing");
+
+        assertThat(readModel.get("customer-1").size()).isZero();
+        assertThat(readModel.get("customer-2").toDto(0).getTotalBalance()).isEqualTo(Money.of(20.0));
+    }
+
+    @Test
+    void lostChangeStreamHistoryForcesAFullReload() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(CustomerPortfolioReadModel.COLLECTION)))
+                .thenReturn(Flux.just(credit("1", "customer-1", "PERSONAL", true, 10.0, 100.0, null)));
+        MongoCommandException historyLost = new MongoCommandException(
+                new BsonDocument("code", new BsonInt32(286)).append("errmsg", new BsonString("history lost")), new ServerAddress());
+        when(mongoTemplate.changeStream(eq(CustomerPortfolioReadModel.COLLECTION), any(), eq(Document.class)))
+                .thenReturn(Flux.error(historyLost), Flux.never());
+
+        readModel.start();
+
+        verify(mongoTemplate, timeout(1_000).times(2)).find(any(Query.class), eq(Document.class), eq(CustomerPortfolioReadModel.COLLECTION));
+        verify(mongoTemplate, timeout(1_000).times(2)).changeStream(eq(CustomerPortfolioReadModel.COLLECTION), any(), eq(Document.class));
+        assertThat(readModel.isReady()).isTrue();
+        assertThat(readModel.get("customer-1").size()).isEqualTo(1);
+    }
+
+    private static Document credit(String id, String customerId, String type, boolean active, double balance, double creditLimit, Date dueDate) {
+        return new Document("_id", id).append("customerId", customerId).append("type", type).append("active", active)
+                .append("balance", balance).append("creditLimit", creditLimit).append("dueDate", dueDate);
+    }
+}
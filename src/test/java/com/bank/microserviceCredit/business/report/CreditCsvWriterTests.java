@@ -0,0 +1,55 @@
+package com.bank.microserviceCredit.business.report;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditCsvWriterTests {
+
+    @Test
+    void writesHeaderAndEscapedRows() {
+        CreditEntity credit = CreditEntity.builder()
+                .id("c1")
+                .customerId("cliente, \"VIP\"")
+                .type("PERSONAL")
+                .creditLimit(Money.of(1000.0))
+                .balance(Money.of(250.5))
+                .active(true)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 9, 0))
+                .build();
+
+        String csv = read(CreditCsvWriter.write(Flux.just(credit), DefaultDataBufferFactory.sharedInstance));
+
+        assertThat(csv).isEqualTo(CreditCsvWriter.HEADER
+                + "c1,\"cliente, \"\"VIP\"\"\",PERSONAL,1000.00,250.50,true,,2024-03-01T09:00,\n");
+    }
+
+    @Test
+    void groupsRowsIntoBuffersWithoutCollectingTheWholeReport() {
+        Flux<CreditEntity> credits = Flux.range(0, 1_000)
+                .map(i -> CreditEntity.builder().id("c" + i).type("BUSINESS").build());
+
+        Long buffers = CreditCsvWriter.write(credits, DefaultDataBufferFactory.sharedInstance)
+                .doOnNext(DataBufferUtils::release)
+                .count()
+                .block();
+
+        // Cabecera + 1000 filas en bloques de 256
+        assertThat(buffers).isEqualTo(5);
+    }
+
+    private static String read(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers)
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+    }
+}
@@ -0,0 +1,40 @@
+package com.bank.microserviceCredit.business.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CreditCursorTests {
+
+    @Test
+    void roundTripsThroughOpaqueToken() {
+        CreditCursor cursor = new CreditCursor(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000), "65f1c2a9e4b0a1b2c3d4e5f6");
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "/", "+");
+        assertThat(CreditCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void supportsCreditsWithoutCreationDate() {
+        CreditCursor cursor = new CreditCursor(null, "65f1c2a9e4b0a1b2c3d4e5f6");
+
+        assertThat(CreditCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void treatsMissingTokenAsFirstPage() {
+        assertThat(CreditCursor.decode(null)).isNull();
+        assertThat(CreditCursor.decode("")).isNull();
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        assertThatThrownBy(() -> CreditCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CreditCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
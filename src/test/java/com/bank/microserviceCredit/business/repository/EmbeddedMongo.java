@@ -0,0 +1,95 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.configuration.MongoConversionsConfig;
+import com.bank.microserviceCredit.configuration.MongoIndexInitializer;
+import com.bank.microserviceCredit.configuration.MongoIndexProperties;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.Document;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+import reactor.core.publisher.Flux;
+
+/**
+ * MongoDB embebido para las pruebas que deben ejercitar las consultas y actualizaciones condicionales reales
+ * ($expr, $nin, índices únicos) en lugar de una réplica en Java. Los repositorios se crean sin contexto de Spring,
+ * con las mismas conversiones de importes que la aplicación.
+ */
+public final class EmbeddedMongo implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final MongoClient client;
+    private final ReactiveMongoTemplate template;
+
+    private EmbeddedMongo() {
+        // 7.0, igual que la prueba de carga: los informes usan $dateTrunc y $merge
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        template = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, "creditdb"), converter());
+        // Los mismos índices que al arrancar la aplicación (entre ellos los únicos de los que dependen las reglas)
+        new MongoIndexInitializer(template, new MongoIndexProperties()).start();
+    }
+
+    // Sin binario de mongod en caché ni red para descargarlo, las pruebas que dependen de él se omiten en lugar de fallar
+    public static EmbeddedMongo start() {
+        try {
+            return new EmbeddedMongo();
+        } catch (RuntimeException error) {
+            return Assumptions.abort("MongoDB embebido no disponible: " + error.getMessage());
+        }
+    }
+
+    public ReactiveMongoTemplate template() {
+        return template;
+    }
+
+    public ICreditRepository creditRepository() {
+        return repository(ICreditRepository.class, new ICreditRepositoryCustomImpl(template));
+    }
+
+    public ICreditPostingRepository postingRepository() {
+        return repository(ICreditPostingRepository.class, new ICreditPostingRepositoryCustomImpl(template));
+    }
+
+    public <T> T repository(Class<T> repositoryInterface, Object customImplementation) {
+        return new ReactiveMongoRepositoryFactory(template)
+                .getRepository(repositoryInterface, RepositoryComposition.RepositoryFragments.just(customImplementation));
+    }
+
+    // Vacía todas las colecciones entre pruebas sin perder los índices
+    public void clear() {
+        template.getCollectionNames()
+                .flatMap(name -> template.getCollection(name).flatMap(collection -> Flux.from(collection.deleteMany(new Document())).next()))
+                .blockLast();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        mongod.close();
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoConversionsConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Contra MongoDB embebido: la marca de sincronización viaja en el mismo findAndModify que el saldo y la reserva es la real
+class ICreditRepositoryAccountSyncTests {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    private static EmbeddedMongo mongo;
+
+    private ICreditRepository repository;
+    private LocalDateTime now;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = EmbeddedMongo.start();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) {
+            mongo.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.clear();
+        repository = mongo.creditRepository();
+        // Mongo guarda milisegundos
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        insert("card", "CREDIT_CARD");
+        insert("loan", "PERSONAL");
+    }
+
+    @Test
+    void amountWritesLeaveOnlyCardBalancesPendingAndClaimReadsBalanceWithItsSequence() {
+        repository.findAndUpdateAmounts("card", Money.of(1_000.0), Money.of(300.0), 0L, now).block();
+        repository.findAndUpdateAmounts("loan", Money.of(1_000.0), Money.of(300.0), 0L, now).block();
+
+        AccountBalanceSync sync = repository.claimAccountSync(now, now.plus(LEASE)).block();
+
+        assertThat(sync).isNotNull();
+        assertThat(sync.accountId()).isEqualTo("card");
+        assertThat(sync.balance()).isEqualTo(Money.of(300.0));
+        assertThat(sync.sequence()).isEqualTo(1L);
+        assertThat(repository.claimAccountSync(now, now.plus(LEASE)).block()).isNull();
+        assertThat(rawCredit("loan")).doesNotContainKey("accountSync");
+    }
+
+    @Test
+    void nonCardWritesDoNotLeaveAPendingSyncAndDropALegacyOne() {
+        // Marca que dejaban versiones anteriores en todos los tipos
+        mongo.template().updateFirst(new Query(Criteria.where("_id").is("loan")),
+                new Update().set("accountSync.sequence", 1).set("accountSync.nextAttemptAt", now), "credits").block();
+
+        CreditEntity applied = repository.applyPostings("loan", Money.of(50.0), Money.ZERO, Money.of(50.0), List.of("p1"), now).block();
+
+        assertThat(applied.getBalance()).isEqualTo(Money.of(300.0));
+        assertThat(applied.getVersion()).isEqualTo(1L);
+        assertThat(rawCredit("loan")).doesNotContainKey("accountSync").containsEntry("pendingPostingIds", List.of("p1"));
+    }
+
+    @Test
+    void claimIsExclusiveUntilTheLeaseExpires() {
+        repository.applyPostings("card", Money.of(50.0), Money.ZERO, Money.of(50.0), List.of("p1"), now).block();
+
+        AccountBalanceSync first = repository.claimAccountSync(now, now.plus(LEASE)).block();
+        AccountBalanceSync whileLeased = repository.claimAccountSync(now.plusSeconds(1), now.plusSeconds(1).plus(LEASE)).block();
+        LocalDateTime expired = now.plus(LEASE).plusSeconds(1);
+        AccountBalanceSync afterLease = repository.claimAccountSync(expired, expired.plus(LEASE)).block();
+
+        assertThat(first).isNotNull();
+        assertThat(whileLeased).isNull();
+        assertThat(afterLease).isNotNull();
+        assertThat(afterLease.claimedBy()).isNotEqualTo(first.claimedBy());
+    }
+
+    @Test
+    void acknowledgingAStaleSequenceKeepsTheNewerBalancePending() {
+        repository.findAndUpdateAmounts("card", Money.of(1_000.0), Money.of(300.0), null, now).block();
+        AccountBalanceSync sent = repository.claimAccountSync(now, now.plus(LEASE)).block();
+        // Llega un saldo nuevo mientras se envía el anterior
+        repository.applyPostings("card", Money.of(20.0), Money.ZERO, Money.of(20.0), List.of("p1"), now).block();
+
+        repository.acknowledgeAccountSync(sent, now).block();
+
+        AccountBalanceSync next = repository.claimAccountSync(now, now.plus(LEASE)).block();
+        assertThat(next).isNotNull();
+        assertThat(next.sequence()).isEqualTo(sent.sequence() + 1);
+        assertThat(next.balance()).isEqualTo(Money.of(320.0));
+        repository.acknowledgeAccountSync(next, now).block();
+        assertThat(repository.claimAccountSync(now, now.plus(LEASE)).block()).isNull();
+    }
+
+    @Test
+    void lateAcknowledgeAfterALostLeaseSchedulesAnotherSend() {
+        repository.findAndUpdateAmounts("card", Money.of(1_000.0), Money.of(300.0), null, now).block();
+        AccountBalanceSync slow = repository.claimAccountSync(now, now.plus(LEASE)).block();
+        LocalDateTime expired = now.plus(LEASE).plusSeconds(1);
+        AccountBalanceSync retaken = repository.claimAccountSync(expired, expired.plus(LEASE)).block();
+        repository.acknowledgeAccountSync(retaken, expired).block();
+
+        // El envío lento llega después y pudo pisar el saldo ya confirmado: hay que volver a enviarlo
+        repository.acknowledgeAccountSync(slow, expired).block();
+
+        AccountBalanceSync resend = repository.claimAccountSync(expired, expired.plus(LEASE)).block();
+        assertThat(resend).isNotNull();
+        assertThat(resend.balance()).isEqualTo(Money.of(300.0));
+    }
+
+    @Test
+    void rescheduledSyncWaitsForItsNextAttempt() {
+        repository.findAndUpdateAmounts("card", Money.of(1_000.0), Money.of(300.0), null, now).block();
+        AccountBalanceSync failed = repository.claimAccountSync(now, now.plus(LEASE)).block();
+
+        repository.rescheduleAccountSync(failed, now.plusMinutes(1)).block();
+
+        assertThat(repository.claimAccountSync(now.plusSeconds(1), now.plusSeconds(1).plus(LEASE)).block()).isNull();
+        AccountBalanceSync retry = repository.claimAccountSync(now.plusMinutes(1), now.plusMinutes(1).plus(LEASE)).block();
+        assertThat(retry).isNotNull();
+        assertThat(retry.attempts()).isEqualTo(1);
+        assertThat(retry.sequence()).isEqualTo(failed.sequence());
+    }
+
+    private void insert(String id, String type) {
+        mongo.template().insert(CreditEntity.builder()
+                .id(id)
+                .customerId("customer-" + id)
+                .type(type)
+                .creditLimit(Money.of(1_000.0))
+                .balance(Money.of(250.0))
+                .version(0L)
+                .build()).block();
+    }
+
+    private Document rawCredit(String id) {
+        return mongo.template().findById(id, Document.class, "credits").block();
+    }
+}
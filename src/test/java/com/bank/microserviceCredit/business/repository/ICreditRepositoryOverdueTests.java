@@ -0,0 +1,96 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Contra MongoDB embebido: las consultas de reconciliación y la búsqueda por marca son las reales
+class ICreditRepositoryOverdueTests {
+
+    private static EmbeddedMongo mongo;
+
+    private ICreditRepository repository;
+    private LocalDateTime now;
+    private LocalDateTime sweptUntil;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = EmbeddedMongo.start();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) {
+            mongo.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.clear();
+        repository = mongo.creditRepository();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        sweptUntil = now.minusHours(1);
+    }
+
+    @Test
+    void creditWrittenBehindTheCheckpointIsFoundAfterTheNextReconciliation() {
+        insert("late", now.minusDays(10), 500.0, null);
+        insert("paid", now.minusDays(10), 0.0, null);
+
+        assertThat(repository.existsOverdueDebt("customer-late", sweptUntil, now).block()).isFalse();
+        assertThat(repository.markLateOverdue(sweptUntil).block()).isEqualTo(1L);
+
+        assertThat(repository.existsOverdueDebt("customer-late", sweptUntil, now).block()).isTrue();
+        assertThat(repository.findById("paid").block().getOverdue()).isNull();
+    }
+
+    @Test
+    void postponedDueDateClearsTheFlag() {
+        insert("postponed", now.plusDays(30), 500.0, true);
+        insert("removed", null, 500.0, true);
+        insert("still-due", now.minusDays(2), 500.0, true);
+
+        assertThat(repository.clearPostponedOverdue(now).block()).isEqualTo(2L);
+
+        assertThat(repository.existsOverdueDebt("customer-postponed", sweptUntil, now).block()).isFalse();
+        assertThat(repository.existsOverdueDebt("customer-removed", sweptUntil, now).block()).isFalse();
+        assertThat(repository.existsOverdueDebt("customer-still-due", sweptUntil, now).block()).isTrue();
+    }
+
+    @Test
+    void refreshOnlyAppliesWhileTheDueDateIsTheOneItWasComputedFrom() {
+        LocalDateTime dueDate = now.minusDays(2);
+        insert("c1", dueDate, 0.0, true);
+
+        repository.refreshOverdue("c1", now.minusDays(5), false).block();
+        assertThat(repository.findById("c1").block().getOverdue()).isTrue();
+
+        repository.refreshOverdue("c1", dueDate, false).block();
+        CreditEntity cleared = repository.findById("c1").block();
+        assertThat(cleared.getOverdue()).isNull();
+        // La marca no es un cambio del crédito: la versión no se mueve
+        assertThat(cleared.getVersion()).isZero();
+    }
+
+    private void insert(String id, LocalDateTime dueDate, double balance, Boolean overdue) {
+        mongo.template().insert(CreditEntity.builder()
+                .id(id)
+                .customerId("customer-" + id)
+                .type("PERSONAL")
+                .creditLimit(Money.of(1_000.0))
+                .balance(Money.of(balance))
+                .dueDate(dueDate)
+                .overdue(overdue)
+                .version(0L)
+                .build()).block();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.microserviceCredit.business.repository;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.Model.entity.CreditRollupEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Contra MongoDB embebido: $out a la colección temporal y renameCollection son los reales
+class ICreditRollupRepositoryRebuildTests {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 6, 1, 10, 30);
+
+    private static EmbeddedMongo mongo;
+
+    private ICreditRollupRepository repository;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = EmbeddedMongo.start();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) {
+            mongo.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.clear();
+        repository = mongo.repository(ICreditRollupRepository.class, new ICreditRollupRepositoryCustomImpl(mongo.template()));
+    }
+
+    @Test
+    void rebuildSwapsInFreshTotalsWithTheirIndexesAndLeavesNoStagingCollection() {
+        insert("c1", 100.0);
+        insert("c2", 50.0);
+        // Intervalo de un crédito ya borrado: no debe sobrevivir a la reconstrucción
+        repository.incrementAll(List.of(CreditRollupEntity.builder()
+                .id(CreditRollupEntity.idOf(CreditRollupEntity.DAY, "BUSINESS", CREATED_AT.minusDays(7).toLocalDate().atStartOfDay()))
+                .granularity(CreditRollupEntity.DAY)
+                .bucket(CREATED_AT.minusDays(7).toLocalDate().atStartOfDay())
+                .type("BUSINESS")
+                .count(1)
+                .build())).block();
+
+        repository.rebuild().block();
+
+        List<CreditRollupEntity> rollups = repository.findAll().collectList().block();
+        assertThat(rollups).extracting(CreditRollupEntity::getId).containsExactlyInAnyOrder(
+                CreditRollupEntity.idOf(CreditRollupEntity.DAY, "BUSINESS", CREATED_AT.toLocalDate().atStartOfDay()),
+                CreditRollupEntity.idOf(CreditRollupEntity.HOUR, "BUSINESS", CREATED_AT.withMinute(0)));
+        assertThat(rollups).allSatisfy(rollup -> {
+            assertThat(rollup.getCount()).isEqualTo(2);
+            assertThat(rollup.getTotalBalance()).isEqualTo(150.0);
+        });
+        assertThat(mongo.template().indexOps(CreditRollupEntity.class).getIndexInfo().map(IndexInfo::getName).collectList().block())
+                .contains("granularity_bucket_idx");
+        assertThat(mongo.template().getCollectionNames().collectList().block())
+                .noneMatch(name -> name.startsWith("credit_rollups_rebuild_"));
+    }
+
+    private void insert(String id, double balance) {
+        mongo.template().insert(CreditEntity.builder()
+                .id(id)
+                .customerId("customer-" + id)
+                .type("BUSINESS")
+                .creditLimit(Money.of(1_000.0))
+                .balance(Money.of(balance))
+                .createdAt(CREATED_AT)
+                .version(0L)
+                .build()).block();
+    }
+}
@@ -0,0 +1,307 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.api.credit.PostingRequest;
+import com.bank.microserviceCredit.Model.api.credit.PostingResultDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.Model.entity.CreditPostingEntity;
+import com.bank.microserviceCredit.business.cache.CreditCache;
+import com.bank.microserviceCredit.business.cache.CustomerVerificationCache;
+import com.bank.microserviceCredit.business.cache.InMemoryCreditInvalidationBus;
+import com.bank.microserviceCredit.business.overdue.OverdueDebtSweeper;
+import com.bank.microserviceCredit.business.portfolio.CustomerPortfolioReadModel;
+import com.bank.microserviceCredit.business.repository.CreditPostingState;
+import com.bank.microserviceCredit.business.repository.EmbeddedMongo;
+import com.bank.microserviceCredit.business.repository.ICreditPostingRepository;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.repository.ISweepCheckpointRepository;
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
+import com.bank.microserviceCredit.configuration.BulkProperties;
+import com.bank.microserviceCredit.configuration.CreditCacheProperties;
+import com.bank.microserviceCredit.configuration.CreditUpdateProperties;
+import com.bank.microserviceCredit.configuration.CustomerCacheProperties;
+import com.bank.microserviceCredit.configuration.EligibilityProperties;
+import com.bank.microserviceCredit.configuration.OverdueSweepProperties;
+import com.bank.microserviceCredit.configuration.PaginationProperties;
+import com.bank.microserviceCredit.configuration.PortfolioProperties;
+import com.bank.microserviceCredit.configuration.PostingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Contra MongoDB embebido: la condición del $inc, el $nin de movimientos pendientes y el índice único son los reales
+class CreditServiceImplPostingTests {
+
+    private static EmbeddedMongo mongo;
+
+    private final ICreditRollupService rollupService = mock(ICreditRollupService.class);
+    private final PostingProperties postingProperties = new PostingProperties();
+    private ICreditRepository realCreditRepository;
+    private ICreditRepository creditRepository;
+    private ICreditPostingRepository postingRepository;
+    private CreditServiceImpl service;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = EmbeddedMongo.start();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) {
+            mongo.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongo.clear();
+        realCreditRepository = mongo.creditRepository();
+        creditRepository = mock(ICreditRepository.class, delegatesTo(realCreditRepository));
+        postingRepository = mongo.postingRepository();
+        CreditUpdateProperties updateProperties = new CreditUpdateProperties();
+        updateProperties.setRetryBackoff(Duration.ofMillis(1));
+        service = new CreditServiceImpl(creditRepository, WebClient.create(), new PaginationProperties(),
+                new CustomerVerificationCache(new CustomerCacheProperties()), new BulkProperties(), new EligibilityProperties(),
+                rollupService, updateProperties,
+                new CreditCache(new CreditCacheProperties(), new InMemoryCreditInvalidationBus()), postingRepository, postingProperties,
+                new OverdueDebtSweeper(creditRepository, mock(ISweepCheckpointRepository.class), new OverdueSweepProperties(), new SimpleMeterRegistry()),
+                new CustomerPortfolioReadModel(mock(ReactiveMongoTemplate.class), new PortfolioProperties(), new SimpleMeterRegistry()));
+        when(rollupService.recordUpdated(any(), anyDouble(), anyDouble())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void concurrentPostingsNeitherLoseUpdatesNorExceedTheLimitNorApplyTwice() {
+        store("c1", 1_000.0, 0.0);
+        // 300 cargos de 10 sobre una línea de 1000, cada uno enviado dos veces y todos en paralelo
+        List<PostingRequest> postings = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            postings.add(posting(null, "key-" + i, "CHARGE", 10.0));
+            postings.add(posting(null, "key-" + i, "CHARGE", 10.0));
+        }
+
+        List<PostingResultDto> results = Flux.fromIterable(postings)
+                .flatMap(request -> service.post("c1", request).subscribeOn(Schedulers.parallel()), 64)
+                .collectList()
+                .block();
+
+        List<PostingResultDto> applied = results.stream().filter(result -> "APPLIED".equals(result.getStatus())).toList();
+        assertThat(applied).hasSize(100);
+        assertThat(applied.stream().map(PostingResultDto::getIdempotencyKey).distinct()).hasSize(100);
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(1_000.0));
+        assertThat(credit("c1").getVersion()).isEqualTo(100L);
+        // ERROR: el reenvío llegó mientras el original aún se aplicaba; repetirlo después da DUPLICATE
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatus()).isIn("APPLIED", "DUPLICATE", "REJECTED", "ERROR"));
+        // Solo quedan registrados los aplicados, y todos cerrados
+        assertThat(postingRepository.findAll().collectList().block())
+                .hasSize(100)
+                .allSatisfy(entry -> assertThat(entry.getStatus()).isEqualTo(CreditPostingEntity.APPLIED));
+    }
+
+    @Test
+    void appliedVersionIsTheStoredVersionSoItCanBeUsedForTheNextUpdate() {
+        store("c1", 1_000.0, 0.0);
+
+        PostingResultDto result = service.post("c1", posting(null, "key-1", "CHARGE", 10.0)).block();
+
+        // Cerrar el movimiento (releasePostings) no es un cambio del crédito: no debe sumar otra versión
+        assertThat(result.getStatus()).isEqualTo("APPLIED");
+        assertThat(result.getVersion()).isEqualTo(1L);
+        assertThat(credit("c1").getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void replayingABatchLargerThanAnyWindowAppliesNothingTwice() {
+        store("c1", 1_000_000.0, 0.0);
+        // Un lote completo de movimientos para un mismo crédito, reenviado entero, y después uno de sus movimientos suelto
+        List<PostingRequest> batch = new ArrayList<>();
+        for (int i = 0; i < postingProperties.getBatchSize(); i++) {
+            batch.add(posting("c1", "key-" + i, i % 4 == 3 ? "PAYMENT" : "CHARGE", 10.0));
+        }
+
+        List<PostingResultDto> first = service.postBatch(Flux.fromIterable(batch)).collectList().block();
+        List<PostingResultDto> replay = service.postBatch(Flux.fromIterable(batch)).collectList().block();
+        PostingResultDto single = service.post("c1", posting(null, "key-0", "CHARGE", 10.0)).block();
+
+        assertThat(first).extracting(PostingResultDto::getStatus).containsOnly("APPLIED");
+        assertThat(replay).extracting(PostingResultDto::getStatus).containsOnly("DUPLICATE");
+        assertThat(single.getStatus()).isEqualTo("DUPLICATE");
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(5_000.0));
+        assertThat(credit("c1").getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void batchWritesEachCreditOnceAndAnswersInInputOrder() {
+        store("c1", 1_000.0, 0.0);
+        store("c2", 1_000.0, 0.0);
+
+        List<PostingResultDto> results = service.postBatch(Flux.just(
+                        posting("c1", "k1", "CHARGE", 100.0),
+                        posting("c2", "k2", "CHARGE", 50.0),
+                        posting("c1", "k3", "PAYMENT", 30.0),
+                        posting("c1", "k1", "CHARGE", 100.0),
+                        posting("c1", "k4", "REFUND", 10.0)))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(PostingResultDto::getStatus).containsExactly("APPLIED", "APPLIED", "APPLIED", "DUPLICATE", "REJECTED");
+        assertThat(results).extracting(PostingResultDto::getIndex).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(results.get(0).getBalance()).isEqualTo(Money.of(100.0));
+        assertThat(results.get(2).getBalance()).isEqualTo(Money.of(70.0));
+        verify(creditRepository, times(1)).applyPostings(eq("c1"), eq(Money.of(70.0)), eq(Money.ZERO), eq(Money.of(100.0)), anyList(), any());
+        verify(creditRepository, times(1)).applyPostings(eq("c2"), any(), any(), any(), anyList(), any());
+    }
+
+    @Test
+    void postingsAreSummedInExactCents() {
+        store("c1", 1.0, 0.0);
+
+        // En double, 0.1 + 0.2 supera 0.3 y el último cargo no cabría en la línea
+        List<PostingResultDto> results = service.postBatch(Flux.just(
+                        posting("c1", "k1", "CHARGE", 0.1),
+                        posting("c1", "k2", "CHARGE", 0.2),
+                        posting("c1", "k3", "CHARGE", 0.7)))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(PostingResultDto::getStatus).containsExactly("APPLIED", "APPLIED", "APPLIED");
+        assertThat(results).extracting(PostingResultDto::getBalance)
+                .containsExactly(Money.of(0.1), Money.of(0.3), Money.of(1.0));
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(1.0));
+    }
+
+    @Test
+    void amountsAreReadAsMoneyAndSubCentAmountsAreRejected() throws Exception {
+        store("c1", 1_000.0, 0.0);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        PostingRequest exact = objectMapper.readValue("{\"idempotencyKey\":\"k1\",\"type\":\"CHARGE\",\"amount\":0.10}", PostingRequest.class);
+        PostingRequest subCent = objectMapper.readValue("{\"idempotencyKey\":\"k2\",\"type\":\"CHARGE\",\"amount\":0.004}", PostingRequest.class);
+
+        assertThat(exact.getAmount()).isEqualTo(Money.ofMinor(10));
+        assertThat(service.post("c1", exact).block().getStatus()).isEqualTo("APPLIED");
+        assertThat(service.post("c1", subCent).block().getStatus()).isEqualTo("REJECTED");
+    }
+
+    @Test
+    void batchThatWouldCrossTheLimitFallsBackToPostingOneByOne() {
+        store("c1", 100.0, 0.0);
+
+        List<PostingResultDto> results = service.postBatch(Flux.just(
+                        posting("c1", "k1", "CHARGE", 80.0),
+                        posting("c1", "k2", "CHARGE", 50.0),
+                        posting("c1", "k3", "PAYMENT", 40.0),
+                        posting("missing", "k4", "CHARGE", 1.0)))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(PostingResultDto::getStatus).containsExactly("APPLIED", "REJECTED", "APPLIED", "NOT_FOUND");
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(40.0));
+        // El rechazado libera su clave: el mismo movimiento se puede reenviar cuando haya línea disponible
+        assertThat(service.post("c1", posting(null, "k2", "CHARGE", 50.0)).block().getStatus()).isEqualTo("APPLIED");
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(90.0));
+    }
+
+    @Test
+    void retryAfterALostReplyDoesNotApplyTwice() {
+        store("c1", 1_000.0, 0.0);
+        // El $inc llega a Mongo pero la respuesta se pierde; el reintento no debe volver a sumar
+        doAnswer(invocation -> realCreditRepository.applyPostings(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4), invocation.getArgument(5))
+                .then(Mono.error(new DataAccessResourceFailureException("respuesta perdida"))))
+                .doAnswer(delegatesTo(realCreditRepository))
+                .when(creditRepository).applyPostings(any(), any(), any(), any(), anyList(), any());
+
+        PostingResultDto result = service.post("c1", posting(null, "k1", "CHARGE", 100.0)).block();
+
+        assertThat(result.getStatus()).isEqualTo("APPLIED");
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(100.0));
+        verify(rollupService, times(1)).recordUpdated(any(), eq(100.0), eq(0.0));
+        assertThat(service.post("c1", posting(null, "k1", "CHARGE", 100.0)).block().getStatus()).isEqualTo("DUPLICATE");
+    }
+
+    @Test
+    void abandonedPostingIsTakenOverAndCanNoLongerBeAppliedByItsOwner() {
+        store("c1", 1_000.0, 0.0);
+        // Una solicitud reclamó la clave y murió antes de tocar el saldo
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(5);
+        CreditPostingEntity abandoned = postingRepository.save(CreditPostingEntity.builder()
+                .id(new ObjectId(Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant())).toHexString())
+                .creditId("c1").idempotencyKey("k1").type("CHARGE").amount(Money.of(100.0))
+                .status(CreditPostingEntity.PENDING).createdAt(createdAt).build()).block();
+
+        PostingResultDto result = service.post("c1", posting(null, "k1", "CHARGE", 100.0)).block();
+        CreditEntity late = realCreditRepository.applyPostings("c1", Money.of(100.0), Money.ZERO, Money.of(100.0),
+                List.of(abandoned.getId()), LocalDateTime.now()).block();
+
+        assertThat(result.getStatus()).isEqualTo("APPLIED");
+        assertThat(late).isNull();
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.of(100.0));
+        // Resuelta la toma, el bloqueo ya no ocupa el documento: lo mantiene fencedBefore
+        CreditPostingState state = realCreditRepository.findPostingState("c1").block();
+        assertThat(state.fencedPostingIds()).isEmpty();
+        assertThat(state.isFenced(abandoned.getId())).isTrue();
+        assertThat(service.post("c1", posting(null, "k2", "CHARGE", 50.0)).block().getStatus()).isEqualTo("APPLIED");
+    }
+
+    @Test
+    void postingStillInProgressIsNotAppliedAgain() {
+        store("c1", 1_000.0, 0.0);
+        postingRepository.save(CreditPostingEntity.builder()
+                .id("in-flight").creditId("c1").idempotencyKey("k1").type("CHARGE").amount(Money.of(100.0))
+                .status(CreditPostingEntity.PENDING).createdAt(LocalDateTime.now()).build()).block();
+
+        PostingResultDto result = service.post("c1", posting(null, "k1", "CHARGE", 100.0)).block();
+
+        assertThat(result.getStatus()).isEqualTo("ERROR");
+        assertThat(credit("c1").getBalance()).isEqualTo(Money.ZERO);
+    }
+
+    private void store(String id, double creditLimit, double balance) {
+        mongo.template().insert(CreditEntity.builder()
+                .id(id)
+                .customerId("customer-" + id)
+                .type("BUSINESS")
+                .creditLimit(Money.of(creditLimit))
+                .balance(Money.of(balance))
+                .version(0L)
+                .build()).block();
+    }
+
+    private CreditEntity credit(String id) {
+        return realCreditRepository.findById(id).block();
+    }
+
+    private static PostingRequest posting(String creditId, String key, String type, double amount) {
+        return PostingRequest.builder().creditId(creditId).idempotencyKey(key).type(type).amount(Money.of(amount)).build();
+    }
+}
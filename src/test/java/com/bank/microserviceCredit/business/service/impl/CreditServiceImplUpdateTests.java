@@ -0,0 +1,203 @@
+package com.bank.microserviceCredit.business.service.impl;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditRequest;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import com.bank.microserviceCredit.business.cache.CreditCache;
+import com.bank.microserviceCredit.business.cache.CustomerVerificationCache;
+import com.bank.microserviceCredit.business.cache.InMemoryCreditInvalidationBus;
+import com.bank.microserviceCredit.business.overdue.OverdueDebtSweeper;
+import com.bank.microserviceCredit.business.portfolio.CustomerPortfolioReadModel;
+import com.bank.microserviceCredit.business.repository.ICreditPostingRepository;
+import com.bank.microserviceCredit.business.repository.ICreditRepository;
+import com.bank.microserviceCredit.business.repository.ISweepCheckpointRepository;
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
+import com.bank.microserviceCredit.configuration.BulkProperties;
+import com.bank.microserviceCredit.configuration.CreditCacheProperties;
+import com.bank.microserviceCredit.configuration.CreditUpdateProperties;
+import com.bank.microserviceCredit.configuration.CustomerCacheProperties;
+import com.bank.microserviceCredit.configuration.EligibilityProperties;
+import com.bank.microserviceCredit.configuration.OverdueSweepProperties;
+import com.bank.microserviceCredit.configuration.PaginationProperties;
+import com.bank.microserviceCredit.configuration.PortfolioProperties;
+import com.bank.microserviceCredit.configuration.PostingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CreditServiceImplUpdateTests {
+
+    private final ICreditRepository creditRepository = mock(ICreditRepository.class);
+    private final ICreditRollupService rollupService = mock(ICreditRollupService.class);
+    private CreditServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        CreditUpdateProperties updateProperties = new CreditUpdateProperties();
+        updateProperties.setRetryBackoff(Duration.ofMillis(1));
+        service = new CreditServiceImpl(creditRepository, WebClient.create(), new PaginationProperties(),
+                new CustomerVerificationCache(new CustomerCacheProperties()), new BulkProperties(), new EligibilityProperties(),
+                rollupService, updateProperties,
+                new CreditCache(new CreditCacheProperties(), new InMemoryCreditInvalidationBus()), mock(ICreditPostingRepository.class), new PostingProperties(),
+                new OverdueDebtSweeper(creditRepository, mock(ISweepCheckpointRepository.class), new OverdueSweepProperties(), new SimpleMeterRegistry()),
+                new CustomerPortfolioReadModel(mock(ReactiveMongoTemplate.class), new PortfolioProperties(), new SimpleMeterRegistry()));
+        when(rollupService.recordUpdated(any(), anyDouble(), anyDouble())).thenReturn(Mono.empty());
+        when(rollupService.recordDeleted(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void updatesInOneRoundTripAndComputesRollupDeltasFromPreviousDocument() {
+        when(creditRepository.findAndUpdateAmounts(eq("c1"), eq(Money.of(20_000.0)), eq(Money.of(3_000.0)), eq(4L), any()))
+                .thenReturn(Mono.just(credit("CREDIT_CARD", 4L)));
+
+        StepVerifier.create(service.updateCredit("c1", request(4L)))
+                .assertNext(updated -> {
+                    assertThat(updated.getBalance()).isEqualTo(Money.of(3_000.0));
+                    assertThat(updated.getCreditLimit()).isEqualTo(Money.of(20_000.0));
+                    assertThat(updated.getVersion()).isEqualTo(5L);
+                })
+                .verifyComplete();
+
+        verify(creditRepository, never()).findById(anyString());
+        verify(creditRepository, never()).save(any());
+        verify(rollupService).recordUpdated(any(), eq(500.0), eq(10_000.0));
+    }
+
+    @Test
+    void payingOffAnOverdueCreditClearsItsOverdueFlag() {
+        LocalDateTime dueDate = LocalDateTime.now().minusDays(3);
+        when(creditRepository.findAndUpdateAmounts(anyString(), any(), eq(Money.ZERO), isNull(), any()))
+                .thenReturn(Mono.just(credit("PERSONAL", 4L).toBuilder().dueDate(dueDate).overdue(true).build()));
+        when(creditRepository.refreshOverdue(anyString(), any(), anyBoolean())).thenReturn(Mono.empty());
+        CreditRequest payOff = request(null);
+        payOff.setBalance(Money.ZERO);
+
+        StepVerifier.create(service.updateCredit("c1", payOff)).expectNextCount(1).verifyComplete();
+
+        verify(creditRepository).refreshOverdue("c1", dueDate, false);
+    }
+
+    @Test
+    void reportsVersionConflictAsConflict() {
+        when(creditRepository.findAndUpdateAmounts(anyString(), any(), any(), eq(4L), any())).thenReturn(Mono.empty());
+        when(creditRepository.findById("c1")).thenReturn(Mono.just(credit("BUSINESS", 6L)));
+
+        StepVerifier.create(service.updateCredit("c1", request(4L)))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode()).isEqualTo(HttpStatus.CONFLICT))
+                .verify();
+        verify(rollupService, never()).recordUpdated(any(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void reportsMissingCreditAsNotFoundWithoutExtraLookup() {
+        when(creditRepository.findAndUpdateAmounts(anyString(), any(), any(), isNull(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.updateCredit("c1", request(null)))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND))
+                .verify();
+        verify(creditRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void retriesVersionedUpdateOnTransientFailure() {
+        when(creditRepository.findAndUpdateAmounts(anyString(), any(), any(), eq(1L), any()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("timeout")))
+                .thenReturn(Mono.just(credit("BUSINESS", 1L)));
+
+        StepVerifier.create(service.updateCredit("c1", request(1L)))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(creditRepository, times(2)).findAndUpdateAmounts(anyString(), any(), any(), eq(1L), any());
+    }
+
+    @Test
+    void versionedRetryAfterALostReplyReportsConflictInsteadOfApplyingTwice() {
+        // El primer intento se aplicó (versión 1 -> 2) pero la respuesta se perdió: el reintento ya no encuentra la versión 1
+        when(creditRepository.findAndUpdateAmounts(anyString(), any(), any(), eq(1L), any()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("timeout")))
+                .thenReturn(Mono.empty());
+        when(creditRepository.findById("c1")).thenReturn(Mono.just(credit("BUSINESS", 2L)));
+
+        StepVerifier.create(service.updateCredit("c1", request(1L)))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode()).isEqualTo(HttpStatus.CONFLICT))
+                .verify();
+        verify(rollupService, never()).recordUpdated(any(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void doesNotRetryUnversionedUpdate() {
+        // Sin versión un reintento tras una respuesta perdida volvería a sumar versión y dejaría a cero los deltas
+        when(creditRepository.findAndUpdateAmounts(anyString(), any(), any(), isNull(), any()))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("timeout")));
+
+        StepVerifier.create(service.updateCredit("c1", request(null)))
+                .verifyError(DataAccessResourceFailureException.class);
+        verify(creditRepository, times(1)).findAndUpdateAmounts(anyString(), any(), any(), isNull(), any());
+    }
+
+    @Test
+    void deleteReportsWhetherACreditWasRemoved() {
+        when(creditRepository.findAndRemoveById("c1")).thenReturn(Mono.just(credit("BUSINESS", 1L)));
+        when(creditRepository.findAndRemoveById("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.deleteById("c1")).expectNext(true).verifyComplete();
+        StepVerifier.create(service.deleteById("missing")).expectNext(false).verifyComplete();
+        verify(rollupService).recordDeleted(any());
+    }
+
+    @Test
+    void findAllPropagatesAFailureInsteadOfEndingTheStreamEarly() {
+        when(creditRepository.findAll()).thenReturn(Flux.concat(Flux.just(credit("BUSINESS", 1L)),
+                Flux.error(new DataAccessResourceFailureException("cursor perdido"))));
+
+        StepVerifier.create(service.findAll())
+                .expectNextCount(1)
+                .verifyError(DataAccessResourceFailureException.class);
+    }
+
+    private static CreditRequest request(Long version) {
+        CreditRequest request = new CreditRequest();
+        request.setCustomerId("customer-1");
+        request.setCreditLimit(Money.of(20_000.0));
+        request.setBalance(Money.of(3_000.0));
+        request.setVersion(version);
+        return request;
+    }
+
+    private static CreditEntity credit(String type, Long version) {
+        return CreditEntity.builder()
+                .id("c1")
+                .customerId("customer-1")
+                .type(type)
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.0))
+                .active(true)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.bank.microserviceCredit.configuration;
+
+import com.bank.microserviceCredit.business.service.ICreditService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.rsocket.server.port=0", "credit.mongo-indexes.enabled=false"})
+@AutoConfigureObservability(tracing = false)
+class MetricsConfigTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ICreditService creditService;
+
+    @Test
+    void exposesEndpointLatencyHistogramsCacheAndSchedulerMetricsInPrometheusFormat() {
+        when(creditService.findAll()).thenReturn(Flux.empty());
+        webTestClient.get().uri("/api/credits").exchange().expectStatus().isOk();
+        // Los schedulers compartidos pueden haberse creado antes en esta JVM; uno nuevo siempre pasa por el decorador
+        Scheduler scheduler = Schedulers.newParallel("metrics-test", 1);
+        Mono.delay(Duration.ofMillis(1), scheduler).block();
+
+        String scrape = webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/api/credits\"")
+                .contains("cache_gets_total{")
+                .contains("cache=\"customer-verification\"")
+                .contains("credit_outbox_dispatched_total{")
+                .contains("reactor_executor_queued_tasks{");
+        scheduler.dispose();
+    }
+
+    @Test
+    void schedulerMetricsDoNotGrowAsBoundedElasticExecutorsComeAndGo() {
+        runOnNewBoundedElastic();
+        int meters = schedulerMeters();
+        double completed = meterRegistry.get("reactor.executor.completed").tag("scheduler", "boundedElastic").functionCounter().count();
+
+        for (int i = 0; i < 10; i++) {
+            runOnNewBoundedElastic();
+        }
+
+        assertThat(schedulerMeters()).isEqualTo(meters);
+        // Las tareas de los ejecutores ya terminados siguen sumando en el contador
+        assertThat(meterRegistry.get("reactor.executor.completed").tag("scheduler", "boundedElastic").functionCounter().count())
+                .isGreaterThanOrEqualTo(completed + 10);
+    }
+
+    // Cada scheduler nuevo crea su propio ejecutor; al desecharlo el ejecutor termina como al desalojar un worker ocioso
+    private void runOnNewBoundedElastic() {
+        Scheduler scheduler = Schedulers.newBoundedElastic(1, 10, "metrics-leak-test");
+        Mono.fromCallable(() -> 1).subscribeOn(scheduler).block();
+        scheduler.disposeGracefully().block(Duration.ofSeconds(5));
+    }
+
+    private int schedulerMeters() {
+        return (int) meterRegistry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("reactor.executor"))
+                .count();
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.microserviceCredit.configuration;
+
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.entity.CreditEntity;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoConversionsConfigTests {
+
+    private final MappingMongoConverter converter = converter();
+
+    @Test
+    void readsLegacyDoubleAndNewDecimalAmounts() {
+        CreditEntity legacy = converter.read(CreditEntity.class, new Document("_id", "c1").append("creditLimit", 10_000.0).append("balance", 2_500.75));
+        CreditEntity current = converter.read(CreditEntity.class, new Document("_id", "c2")
+                .append("creditLimit", new Decimal128(new BigDecimal("10000.00")))
+                .append("balance", 300));
+
+        assertThat(legacy.getCreditLimit()).isEqualTo(Money.ofMinor(1_000_000));
+        assertThat(legacy.getBalance()).isEqualTo(Money.ofMinor(250_075));
+        assertThat(current.getCreditLimit()).isEqualTo(Money.ofMinor(1_000_000));
+        assertThat(current.getBalance()).isEqualTo(Money.ofMinor(30_000));
+    }
+
+    @Test
+    void writesAmountsAsDecimal128() {
+        Document document = new Document();
+        converter.write(CreditEntity.builder().id("c1").creditLimit(Money.of(0.3)).balance(Money.of(0.1).plus(Money.of(0.2))).build(), document);
+
+        assertThat(document.get("creditLimit")).isEqualTo(new Decimal128(new BigDecimal("0.30")));
+        assertThat(document.get("balance")).isEqualTo(document.get("creditLimit"));
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoConversionsConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
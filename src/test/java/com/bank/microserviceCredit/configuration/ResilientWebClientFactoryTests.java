@@ -0,0 +1,123 @@
+package com.bank.microserviceCredit.configuration;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilientWebClientFactoryTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResilientWebClientFactory factory = new ResilientWebClientFactory(meterRegistry);
+    private final AtomicInteger hits = new AtomicInteger();
+    private DisposableServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void failsFastWhenDependencyExceedsResponseTimeout() {
+        WebClient client = client(endpoint(), hit -> new StubResponse(Duration.ofSeconds(2), 200));
+
+        StepVerifier.create(get(client))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedServerErrors() {
+        ClientProperties.Endpoint endpoint = endpoint();
+        endpoint.setMinimumNumberOfCalls(5);
+        endpoint.setSlidingWindowSize(5);
+        WebClient client = client(endpoint, hit -> new StubResponse(Duration.ZERO, 500));
+
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(get(client)).expectError(WebClientResponseException.InternalServerError.class).verify();
+        }
+        StepVerifier.create(get(client)).expectError(CallNotPermittedException.class).verify();
+
+        // Con el circuito abierto la dependencia ya no recibe tráfico
+        assertThat(hits).hasValue(5);
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkheadWithoutQueueing() {
+        ClientProperties.Endpoint endpoint = endpoint();
+        endpoint.setMaxConcurrentCalls(2);
+        WebClient client = client(endpoint, hit -> new StubResponse(Duration.ofMillis(300), 200));
+
+        StepVerifier.create(Flux.range(0, 5)
+                        .flatMap(i -> get(client)
+                                .map(body -> "ok")
+                                .onErrorResume(BulkheadFullException.class, e -> Mono.just("rejected")))
+                        .collectList())
+                .assertNext(results -> {
+                    assertThat(results).filteredOn("ok"::equals).hasSize(2);
+                    assertThat(results).filteredOn("rejected"::equals).hasSize(3);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void hedgesSlowGetWithSecondRequest() {
+        ClientProperties.Endpoint endpoint = endpoint();
+        endpoint.setHedgeDelay(Duration.ofMillis(100));
+        // Tras el calentamiento, la siguiente petición se queda colgada y la duplicada responde en seguida
+        WebClient client = client(endpoint, hit -> new StubResponse(hit == 2 ? Duration.ofSeconds(5) : Duration.ZERO, 200));
+        StepVerifier.create(get(client)).expectNext("{}").verifyComplete();
+
+        StepVerifier.create(get(client))
+                .expectNext("{}")
+                .expectComplete()
+                .verify(Duration.ofMillis(800));
+        assertThat(hits).hasValue(3);
+        assertThat(meterRegistry.find("credit.client.requests").tag("client", "stub").tag("outcome", "200").timer())
+                .isNotNull();
+    }
+
+    private Mono<String> get(WebClient client) {
+        return client.get().uri("/customers/{id}", "c1").retrieve().bodyToMono(String.class);
+    }
+
+    private WebClient client(ClientProperties.Endpoint endpoint, IntFunction<StubResponse> behaviour) {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/customers/{id}", (request, response) -> {
+                    StubResponse stub = behaviour.apply(hits.incrementAndGet());
+                    return Mono.delay(stub.delay())
+                            .then(response.status(stub.status()).header("Content-Type", "application/json").sendString(Mono.just("{}")).then());
+                }))
+                .bindNow();
+        endpoint.setBaseUrl("http://localhost:" + server.port());
+        return factory.create("stub", endpoint, WebClient.builder());
+    }
+
+    private static ClientProperties.Endpoint endpoint() {
+        ClientProperties.Endpoint endpoint = new ClientProperties.Endpoint();
+        endpoint.setResponseTimeout(Duration.ofMillis(500));
+        endpoint.setMaxConnections(10);
+        return endpoint;
+    }
+
+    private record StubResponse(Duration delay, int status) {
+    }
+}
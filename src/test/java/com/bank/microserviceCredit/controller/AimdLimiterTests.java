@@ -0,0 +1,68 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.configuration.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTests {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    private final AimdLimiter limiter = new AimdLimiter(
+            new ConcurrencyLimitProperties.RouteLimit(4, 2, 6, Duration.ofMillis(100)), 0.5);
+
+    @Test
+    void rejectsOnceTheLimitIsInUse() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.cancel();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void growsWhileFastAndInUseAndBacksOffMultiplicativelyWhenSlow() {
+        // Con el límite en uso, cada respuesta rápida suma uno hasta el máximo
+        for (int i = 0; i < 5; i++) {
+            fillAndRelease(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(6);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void fastResponsesWithLittleLoadDoNotRaiseTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    private void fillAndRelease(long latencyNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        limiter.release(latencyNanos, false);
+        for (int i = 1; i < acquired; i++) {
+            limiter.cancel();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.business.service.ICreditService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sobrecarga contra un servicio lento simulado: el filtro debe rechazar lo que excede el límite en lugar de
+ * acumular solicitudes, bajar el límite cuando la latencia crece y descartar reportes antes que elegibilidad.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.rsocket.server.port=0",
+        "credit.mongo-indexes.enabled=false",
+        "credit.concurrency-limit.eligibility.initial-limit=5",
+        "credit.concurrency-limit.eligibility.min-limit=1",
+        "credit.concurrency-limit.eligibility.max-limit=5",
+        "credit.concurrency-limit.eligibility.latency-threshold=10s",
+        "credit.concurrency-limit.crud.initial-limit=20",
+        "credit.concurrency-limit.crud.min-limit=2",
+        "credit.concurrency-limit.crud.max-limit=20",
+        "credit.concurrency-limit.crud.latency-threshold=50ms",
+        "credit.concurrency-limit.reports.initial-limit=5",
+        "credit.concurrency-limit.reports.min-limit=1",
+        "credit.concurrency-limit.reports.max-limit=5",
+        "credit.concurrency-limit.reports.latency-threshold=10s"})
+class ConcurrencyLimitFilterTests {
+
+    private static final Duration SLOW = Duration.ofSeconds(1);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ICreditService creditService;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Test
+    void rejectsBeyondTheLimitWithRetryAfterInsteadOfQueueing() {
+        when(creditService.hasActiveCreditCard(anyString())).thenAnswer(invocation -> slow(Mono.just(true)));
+
+        List<ResponseEntity<String>> responses = Flux.range(0, 20)
+                .flatMap(i -> get("/api/credits/customer/customer-" + i + "/has-active-card"), 20)
+                .collectList()
+                .block();
+
+        List<ResponseEntity<String>> rejected = responses.stream().filter(response -> response.getStatusCode().value() == 503).toList();
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(5);
+        assertThat(responses.size() - rejected.size()).isLessThanOrEqualTo(5);
+        assertThat(rejected).hasSizeGreaterThanOrEqualTo(10)
+                .allSatisfy(response -> {
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+                    assertThat(response.getBody()).contains("\"status\":\"ERROR\"");
+                });
+    }
+
+    @Test
+    void slowResponsesShrinkTheLimit() {
+        when(creditService.findById(anyString())).thenAnswer(invocation -> Mono.<CreditDto>empty()
+                .delaySubscription(Duration.ofMillis(100)));
+
+        Flux.range(0, 10).concatMap(i -> get("/api/credits/credit-" + i)).blockLast();
+
+        // 20 × 0,9^10 ≈ 6,97; la última liberación puede llegar justo después de que el cliente reciba la respuesta
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(meterRegistry.get("credit.concurrency.limit").tag("route", "crud").gauge().value()).isEqualTo(6.0));
+    }
+
+    @Test
+    void reportsAreShedWhileEligibilityIsBusyButNotTheOtherWayAround() {
+        when(creditService.hasActiveCreditCard(anyString())).thenAnswer(invocation -> slow(Mono.just(true)));
+        when(creditService.generateReport(anyString(), anyString())).thenAnswer(invocation -> slow(Mono.just(List.of())));
+        String report = "/api/credits/report?startDate=2024-01-01T00:00:00&endDate=2024-02-01T00:00:00";
+
+        // 4 de 5 consultas de elegibilidad en curso superan priority-headroom (0,8)
+        Mono<List<ResponseEntity<String>>> busyEligibility = Flux.range(0, 4)
+                .flatMap(i -> get("/api/credits/customer/customer-" + i + "/has-active-card"))
+                .collectList()
+                .cache();
+        busyEligibility.subscribe();
+        await().atMost(Duration.ofSeconds(5)).until(() -> inFlight.get() == 4);
+
+        assertThat(get(report).block().getStatusCode().value()).isEqualTo(503);
+        assertThat(busyEligibility.block()).allSatisfy(response -> assertThat(response.getStatusCode().value()).isEqualTo(200));
+
+        // Con los reportes al máximo, la elegibilidad sigue pasando
+        Mono<List<ResponseEntity<String>>> busyReports = Flux.range(0, 5).flatMap(i -> get(report)).collectList().cache();
+        busyReports.subscribe();
+        await().atMost(Duration.ofSeconds(5)).until(() -> inFlight.get() == 5);
+
+        assertThat(get("/api/credits/customer/customer-9/has-active-card").block().getStatusCode().value()).isEqualTo(200);
+        assertThat(busyReports.block()).allSatisfy(response -> assertThat(response.getStatusCode().value()).isEqualTo(200));
+    }
+
+    private <T> Mono<T> slow(Mono<T> result) {
+        return Mono.defer(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return result.delayElement(SLOW).doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private Mono<ResponseEntity<String>> get(String uri) {
+        return WebClient.create("http://localhost:" + port).get().uri(uri)
+                .exchangeToMono(response -> response.toEntity(String.class));
+    }
+}
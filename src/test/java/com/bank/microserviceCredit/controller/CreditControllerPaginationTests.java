@@ -0,0 +1,62 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.shared.PageDto;
+import com.bank.microserviceCredit.business.service.ICreditService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.rsocket.server.port=0", "credit.mongo-indexes.enabled=false"})
+class CreditControllerPaginationTests {
+
+    private static final PageDto<CreditDto> PAGE = PageDto.<CreditDto>builder().items(List.of()).nextCursor("next").size(50).build();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ICreditService creditService;
+
+    @Test
+    void followingNextCursorWithoutSizeReturnsAPageInsteadOfTheFullList() {
+        when(creditService.findPage("abc", null)).thenReturn(Mono.just(PAGE));
+
+        webTestClient.get().uri("/api/credits?cursor=abc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.nextCursor").isEqualTo("next")
+                .jsonPath("$.data.size").isEqualTo(50);
+
+        verify(creditService, never()).findAll();
+    }
+
+    @Test
+    void reportAndCustomerCursorsWithoutSizeArePagedToo() {
+        when(creditService.generateReportPage("2024-01-01", "2024-02-01", "abc", null)).thenReturn(Mono.just(PAGE));
+        when(creditService.findPageByCustomerId("customer-1", "abc", null)).thenReturn(Mono.just(PAGE));
+
+        webTestClient.get().uri("/api/credits/report?startDate=2024-01-01&endDate=2024-02-01&cursor=abc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.data.nextCursor").isEqualTo("next");
+        webTestClient.get().uri("/api/credits/customer/customer-1?cursor=abc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.data.nextCursor").isEqualTo("next");
+
+        verify(creditService, never()).generateReport(any(), any());
+        verify(creditService, never()).findByCustomerId(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDto;
+import com.bank.microserviceCredit.business.service.ICreditService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.rsocket.server.port=0", "credit.mongo-indexes.enabled=false"})
+class CreditControllerStreamingTests {
+
+    private static final int TOTAL_CREDITS = 1_000_000;
+    private static final int CONSUMED_CREDITS = 1_000;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ServerCodecConfigurer codecConfigurer;
+
+    @MockBean
+    private ICreditService creditService;
+
+    @Test
+    void streamsCreditsWithBackpressureInsteadOfBufferingTheCollection() {
+        AtomicLong emitted = new AtomicLong();
+        when(creditService.findAll()).thenReturn(Flux.range(0, TOTAL_CREDITS)
+                .map(CreditControllerStreamingTests::credit)
+                .doOnNext(credit -> emitted.incrementAndGet()));
+
+        Flux<CreditDto> body = webTestClient.get().uri("/api/credits")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CreditDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(body.take(CONSUMED_CREDITS))
+                .expectNextCount(CONSUMED_CREDITS)
+                .verifyComplete();
+
+        // El servidor solo adelanta lo que cabe en los buffers de red: la memoria no depende del tamaño de la colección
+        assertThat(emitted.get()).isLessThan(TOTAL_CREDITS / 5);
+    }
+
+    @Test
+    void keepsJsonEnvelopeAsDefaultRepresentation() {
+        when(creditService.findAll()).thenReturn(Flux.just(credit(1), credit(2)));
+
+        webTestClient.get().uri("/api/credits")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("SUCCESS")
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data[0].balance").isEqualTo(2500.0);
+    }
+
+    @Test
+    void creditResponsesAreWrittenByTheHandWrittenEncoderInsteadOfJackson() {
+        ResolvableType listResponse = ResolvableType.forClassWithGenerics(ResponseDto.class,
+                ResolvableType.forClassWithGenerics(List.class, CreditDto.class));
+
+        HttpMessageWriter<?> writer = codecConfigurer.getWriters().stream()
+                .filter(candidate -> candidate.canWrite(listResponse, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(writer).isInstanceOf(EncoderHttpMessageWriter.class);
+        assertThat(((EncoderHttpMessageWriter<?>) writer).getEncoder()).isInstanceOf(CreditJsonEncoder.class);
+    }
+
+    private static CreditDto credit(int index) {
+        return CreditDto.builder()
+                .id("credit-" + index)
+                .customerId("customer-" + (index % 1_000))
+                .type("BUSINESS")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.0))
+                .active(true)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.PostingResultDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.Model.api.shared.PageDto;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDto;
+import com.bank.microserviceCredit.Model.api.shared.ResponseDtoBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditJsonEncoderTests {
+
+    private static final ResolvableType CREDIT = ResolvableType.forClass(CreditDto.class);
+    private static final ResolvableType SINGLE = ResolvableType.forClassWithGenerics(ResponseDto.class, CreditDto.class);
+    private static final ResolvableType LIST = ResolvableType.forClassWithGenerics(ResponseDto.class,
+            ResolvableType.forClassWithGenerics(List.class, CreditDto.class));
+    private static final ResolvableType PAGE = ResolvableType.forClassWithGenerics(ResponseDto.class,
+            ResolvableType.forClassWithGenerics(PageDto.class, CreditDto.class));
+
+    // Misma configuración que el ObjectMapper de Spring Boot para lo que afecta a estos DTO
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final Jackson2JsonEncoder jackson = new Jackson2JsonEncoder(objectMapper);
+    private final CreditJsonEncoder encoder = new CreditJsonEncoder();
+
+    @Test
+    void writesExactlyTheSameBytesAsJackson() {
+        CreditDto unusual = CreditDto.builder()
+                .id("a\"b\\c\n\t\u0001/")
+                .customerId("Núñez € 😀")
+                .type(null)
+                .creditLimit(Money.of(-0.05))
+                .balance(null)
+                .createdAt(LocalDateTime.of(999, 12, 31, 23, 59, 59, 500_000_000))
+                .updatedAt(LocalDateTime.of(2024, 2, 29, 0, 0, 0, 1))
+                .dueDate(null)
+                .version(null)
+                .build();
+        PageDto<CreditDto> page = PageDto.<CreditDto>builder().items(List.of(credit(1), unusual)).nextCursor("next").size(2).build();
+
+        assertSameAsJackson(credit(7), CREDIT);
+        assertSameAsJackson(ResponseDtoBuilder.success(unusual, "Crédito encontrado"), SINGLE);
+        assertSameAsJackson(ResponseDtoBuilder.notFound("Crédito no encontrado"), SINGLE);
+        assertSameAsJackson(ResponseDtoBuilder.success(List.of(credit(1), credit(2), unusual), "Lista"), LIST);
+        assertSameAsJackson(ResponseDtoBuilder.success(List.of(), "Vacía"), LIST);
+        assertSameAsJackson(ResponseDtoBuilder.success(page, "Página"), PAGE);
+    }
+
+    @Test
+    void streamsJsonArraysAndNdjsonLikeJackson() {
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)) {
+            List<ResponseDto<CreditDto>> values = List.of(ResponseDtoBuilder.success(credit(1), "a"), ResponseDtoBuilder.success(credit(2), "b"));
+            assertThat(join(encoder.encode(Flux.fromIterable(values), DefaultDataBufferFactory.sharedInstance, SINGLE, mediaType, Map.of())))
+                    .isEqualTo(join(jackson.encode(Flux.fromIterable(values), DefaultDataBufferFactory.sharedInstance, SINGLE, mediaType, Map.of())));
+            assertThat(join(encoder.encode(Flux.empty(), DefaultDataBufferFactory.sharedInstance, CREDIT, mediaType, Map.of())))
+                    .isEqualTo(join(jackson.encode(Flux.empty(), DefaultDataBufferFactory.sharedInstance, CREDIT, mediaType, Map.of())));
+        }
+        assertThat(join(encoder.encode(Mono.just(credit(3)), DefaultDataBufferFactory.sharedInstance, CREDIT, MediaType.APPLICATION_JSON, Map.of())))
+                .isEqualTo(join(jackson.encode(Mono.just(credit(3)), DefaultDataBufferFactory.sharedInstance, CREDIT, MediaType.APPLICATION_JSON, Map.of())));
+    }
+
+    @Test
+    void leavesOtherTypesAndMediaTypesToJackson() throws Exception {
+        assertThat(encoder.canEncode(SINGLE, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(encoder.canEncode(SINGLE, null)).isTrue();
+        assertThat(encoder.canEncode(ResolvableType.forClassWithGenerics(ResponseDto.class, PostingResultDto.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(encoder.canEncode(ResolvableType.forClass(ResponseDto.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(encoder.canEncode(CREDIT, MediaType.TEXT_EVENT_STREAM)).isFalse();
+        assertThat(encoder.canEncode(CREDIT, new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_16))).isFalse();
+        // Lo que escribe el codificador se vuelve a leer con Jackson sin perder céntimos
+        assertThat(objectMapper.readValue(encode(credit(1), CREDIT), CreditDto.class)).isEqualTo(credit(1));
+    }
+
+    private void assertSameAsJackson(Object value, ResolvableType type) {
+        assertThat(encoder.canEncode(type, MediaType.APPLICATION_JSON)).isTrue();
+        String expected = text(jackson.encodeValue(value, DefaultDataBufferFactory.sharedInstance, type, MediaType.APPLICATION_JSON, Map.of()));
+        assertThat(encode(value, type)).isEqualTo(expected);
+    }
+
+    private String encode(Object value, ResolvableType type) {
+        return text(encoder.encodeValue(value, DefaultDataBufferFactory.sharedInstance, type, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    private static String join(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers).map(CreditJsonEncoderTests::text).defaultIfEmpty("").block();
+    }
+
+    private static String text(DataBuffer buffer) {
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return text;
+    }
+
+    private static CreditDto credit(int index) {
+        return CreditDto.builder()
+                .id("6650f1c2a4b3e21d9c0a000" + index)
+                .customerId("customer-" + index)
+                .type("CREDIT_CARD")
+                .creditLimit(Money.of(10_000.0))
+                .balance(Money.of(2_500.75 + index))
+                .active(index % 2 == 0)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 30, 15, 123_000_000))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .dueDate(LocalDateTime.of(2024, 6, index, 0, 0))
+                .version((long) index)
+                .build();
+    }
+}
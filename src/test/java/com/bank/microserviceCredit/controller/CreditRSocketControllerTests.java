@@ -0,0 +1,99 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.Model.api.credit.CreditDto;
+import com.bank.microserviceCredit.Model.api.credit.CustomerEligibilityDto;
+import com.bank.microserviceCredit.Model.api.shared.Money;
+import com.bank.microserviceCredit.business.service.ICreditService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.rsocket.server.LocalRSocketServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.rsocket.server.port=0", "credit.mongo-indexes.enabled=false"})
+class CreditRSocketControllerTests {
+
+    @LocalRSocketServerPort
+    private int port;
+
+    @Autowired
+    private RSocketRequester.Builder requesterBuilder;
+
+    @MockBean
+    private ICreditService creditService;
+
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void connect() {
+        requester = requesterBuilder.tcp("localhost", port);
+    }
+
+    @AfterEach
+    void disconnect() {
+        requester.dispose();
+    }
+
+    @Test
+    void negotiatesCborAndAnswersFlagChecks() {
+        when(creditService.hasActiveCreditCard("customer-1")).thenReturn(Mono.just(true));
+        when(creditService.hasOverdueDebts("customer-1")).thenReturn(Mono.just(false));
+
+        assertThat(requester.dataMimeType()).isEqualTo(MimeTypeUtils.parseMimeType("application/cbor"));
+        StepVerifier.create(requester.route("credits.customer.{id}.has-active-card", "customer-1").retrieveMono(Boolean.class))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(requester.route("credits.customer.{id}.has-overdue-debts", "customer-1").retrieveMono(Boolean.class))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamsCustomerCredits() {
+        when(creditService.findByCustomerId("customer-1")).thenReturn(Flux.just(credit("credit-1"), credit("credit-2")));
+
+        StepVerifier.create(requester.route("credits.customer.{id}", "customer-1").retrieveFlux(CreditDto.class).map(CreditDto::getId))
+                .expectNext("credit-1", "credit-2")
+                .verifyComplete();
+    }
+
+    @Test
+    void answersChannelLookupsInTheOrderTheyWereSent() {
+        when(creditService.checkEligibility(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.<List<String>>getArgument(0))
+                .map(customerId -> new CustomerEligibilityDto(customerId, customerId.endsWith("1"), false)));
+
+        StepVerifier.create(requester.route("credits.customers.eligibility")
+                        .data(Flux.just("customer-1", "customer-2", "customer-3"))
+                        .retrieveFlux(CustomerEligibilityDto.class))
+                .expectNext(new CustomerEligibilityDto("customer-1", true, false))
+                .expectNext(new CustomerEligibilityDto("customer-2", false, false))
+                .expectNext(new CustomerEligibilityDto("customer-3", false, false))
+                .verifyComplete();
+    }
+
+    private static CreditDto credit(String id) {
+        return CreditDto.builder()
+                .id(id)
+                .customerId("customer-1")
+                .type("CREDIT_CARD")
+                .creditLimit(Money.of(1_000.0))
+                .balance(Money.of(100.0))
+                .active(true)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+}
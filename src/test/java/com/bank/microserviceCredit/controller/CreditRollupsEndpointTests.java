@@ -0,0 +1,41 @@
+package com.bank.microserviceCredit.controller;
+
+import com.bank.microserviceCredit.business.service.ICreditRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.rsocket.server.port=0",
+        "credit.mongo-indexes.enabled=false", "management.endpoints.web.exposure.include=health,creditrollups"})
+class CreditRollupsEndpointTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ICreditRollupService rollupService;
+
+    @Test
+    void rebuildIsOnlyReachableThroughTheActuatorEndpoint() {
+        when(rollupService.rebuild()).thenReturn(Mono.empty());
+
+        webTestClient.post().uri("/api/credits/report/rollups/rebuild")
+                .exchange()
+                .expectStatus().isNotFound();
+        verify(rollupService, never()).rebuild();
+
+        webTestClient.post().uri("/actuator/creditrollups")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Totales reconstruidos con éxito");
+        verify(rollupService).rebuild();
+    }
+}